@@ -0,0 +1,109 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.dto.BarcodeMapping;
+import com.emart.inventory.dto.ProductScanEntry;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.service.BarcodeIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of scanned codes resolved against 1M products, and how long loading the index takes at that
+ * size. Every product has its own EAN-13 in the product column. Every tenth also has a generated barcode,
+ * and every hundredth a legacy one. One code in twenty of a batch matches nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BarcodeIndexBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private BarcodeIndex index;
+    private List<ProductScanEntry> products;
+    private List<BarcodeMapping> legacy;
+    private List<BarcodeMapping> generated;
+    private List<String> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = new ArrayList<>(ROWS);
+        legacy = new ArrayList<>();
+        generated = new ArrayList<>();
+        for (Product product : BenchmarkData.products(ROWS)) {
+            long id = product.getId();
+            products.add(new Entry(product, String.valueOf(8900000000000L + id)));
+            if (id % 10 == 0) {
+                generated.add(new Mapping("8901234" + String.format("%06d", id % 1_000_000), id));
+            }
+            if (id % 100 == 0) {
+                legacy.add(new Mapping("LEGACY-" + id, id));
+            }
+        }
+        index = new BarcodeIndex();
+        index.load(products, legacy, generated);
+
+        SplittableRandom random = new SplittableRandom(42);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            long id = random.nextLong(ROWS) + 1;
+            batch.add(i % 20 == 19 ? "0000000000000" : String.valueOf(8900000000000L + id));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, BarcodeIndex.ScannedProduct> resolve() {
+        return index.resolve(batch);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BarcodeIndex load() {
+        BarcodeIndex loaded = new BarcodeIndex();
+        loaded.load(products, legacy, generated);
+        return loaded;
+    }
+
+    private static final class Entry implements ProductScanEntry {
+        private final Product product;
+        private final String barcode;
+
+        Entry(Product product, String barcode) {
+            this.product = product;
+            this.barcode = barcode;
+        }
+
+        public Long getId() { return product.getId(); }
+        public String getName() { return product.getName(); }
+        public String getSku() { return product.getSku(); }
+        public String getBarcode() { return barcode; }
+        public BigDecimal getMrp() { return product.getMrp(); }
+        public String getUnit() { return product.getUnit(); }
+        public Boolean getIsActive() { return true; }
+    }
+
+    private static final class Mapping implements BarcodeMapping {
+        private final String code;
+        private final Long productId;
+
+        Mapping(String code, Long productId) {
+            this.code = code;
+            this.productId = productId;
+        }
+
+        public String getCode() { return code; }
+        public Long getProductId() { return productId; }
+    }
+}
@@ -0,0 +1,109 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+import com.emart.inventory.entity.Category;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.entity.Supplier;
+import com.emart.inventory.util.CSVHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic data shared by the benchmarks, so the same sizes produce the same input
+ * from release to release.
+ */
+final class BenchmarkData {
+
+    static final int CATEGORIES = 20;
+    static final int SUPPLIERS = 50;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A product CSV in template format with unique SKUs {@code SKU0..SKU<rows-1>}.
+     *
+     * @param dirtyPercent share of rows with non-numeric values in numeric columns
+     * @param withDates    whether the expiry and manufacturer date columns are filled
+     */
+    static byte[] productCsv(int rows, int dirtyPercent, boolean withDates) {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 200);
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(String.join(",", CSVHelper.TEMPLATE_HEADER)).append('\n');
+        for (int i = 0; i < rows; i++) {
+            boolean dirty = random.nextInt(100) < dirtyPercent;
+            sb.append("Product ").append(i).append(",Description of product ").append(i)
+              .append(",SKU").append(i).append(',').append(8900000000000L + i)
+              .append(",Category ").append(i % CATEGORIES).append(",Supplier ").append(i % SUPPLIERS).append(",pcs,")
+              .append(dirty ? "N/A" : (100 + i % 900) + ".50").append(',')
+              .append(dirty ? "tbd" : (150 + i % 900) + ".00").append(',')
+              .append(dirty ? "ten" : "10").append(',')
+              .append(dirty ? "-" : "100").append(',')
+              .append(withDates ? "2025-12-31,2024-01-01" : ",").append(",BATCH")
+              .append(i % 100).append(",12345,")
+              .append(dirty ? "many" : String.valueOf(i % 500))
+              .append(",supplier").append(i % SUPPLIERS).append("@example.com,9876543210,\"12 Main St, City\"\n");
+            // Flush row by row so a million-row file doesn't need a second full-size copy
+            out.writeBytes(sb.toString().getBytes(StandardCharsets.UTF_8));
+            sb.setLength(0);
+        }
+        return out.toByteArray();
+    }
+
+    /** The rows of {@link #productCsv} as the import parser hands them to validation. */
+    static List<ProductCSVDTO> productRows(int rows, int dirtyPercent) {
+        List<ProductCSVDTO> dtos = new ArrayList<>(rows);
+        CSVHelper.forEachChunk(new ByteArrayInputStream(productCsv(rows, dirtyPercent, true)),
+                CSVHelper.DEFAULT_CHUNK_SIZE, dtos::addAll);
+        return dtos;
+    }
+
+    /** Catalog products with ids, category and supplier set, as loaded for the product list. */
+    static List<Product> products(int rows) {
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category("Category " + i, null);
+            category.setId((long) i + 1);
+            categories.add(category);
+        }
+        List<Supplier> suppliers = new ArrayList<>(SUPPLIERS);
+        for (int i = 0; i < SUPPLIERS; i++) {
+            Supplier supplier = new Supplier("Supplier " + i, "Contact " + i, "supplier" + i + "@example.com", "9876543210");
+            supplier.setId((long) i + 1);
+            suppliers.add(supplier);
+        }
+
+        LocalDateTime expiry = LocalDateTime.of(2025, 12, 31, 0, 0);
+        LocalDateTime manufactured = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Product " + i);
+            product.setSku("SKU" + i);
+            product.setDescription("Description of product " + i);
+            product.setUnit("pcs");
+            product.setPurchasePrice(BigDecimal.valueOf(10050 + i % 900, 2));
+            product.setMrp(BigDecimal.valueOf(15000 + i % 900, 2));
+            product.setMinStockLevel(10);
+            product.setMaxStockLevel(100);
+            product.setQuantity(i % 500);
+            product.setStatus(Product.Status.APPROVED);
+            product.setCategory(categories.get(i % CATEGORIES));
+            product.setSupplier(suppliers.get(i % SUPPLIERS));
+            product.setExpiryDate(expiry);
+            product.setManufacturerDate(manufactured);
+            product.setManufacturerCode("12345");
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,42 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.entity.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+/**
+ * Plain Hibernate session factory over the application's entities, for benchmarks that measure the
+ * persistence side without starting Spring. Uses in-memory H2 in MySQL mode unless
+ * {@code -Dbench.jdbc.url=... -Dbench.jdbc.user=... -Dbench.jdbc.password=...} point it at a real database.
+ */
+final class BenchmarkDatabase {
+
+    private static final Class<?>[] ENTITIES = {
+            Alert.class, Barcode.class, BarcodeNew.class, CSVImport.class, CSVImportItem.class,
+            Category.class, Inventory.class, Invoice.class, InvoiceItem.class, Outlet.class,
+            Product.class, StockMovement.class, Supplier.class, User.class
+    };
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * @param name          H2 database name, so benchmarks in the same JVM don't share tables
+     * @param jdbcBatchSize {@code hibernate.jdbc.batch_size}; application.properties uses 50
+     */
+    static SessionFactory open(String name, int jdbcBatchSize) {
+        Configuration configuration = new Configuration();
+        for (Class<?> entity : ENTITIES) {
+            configuration.addAnnotatedClass(entity);
+        }
+        configuration.setProperty(AvailableSettings.URL,
+                System.getProperty("bench.jdbc.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        configuration.setProperty(AvailableSettings.USER, System.getProperty("bench.jdbc.user", "sa"));
+        configuration.setProperty(AvailableSettings.PASS, System.getProperty("bench.jdbc.password", ""));
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(jdbcBatchSize));
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        return configuration.buildSessionFactory();
+    }
+}
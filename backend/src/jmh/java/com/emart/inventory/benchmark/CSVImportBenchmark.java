@@ -0,0 +1,86 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+import com.emart.inventory.util.CSVHelper;
+import com.emart.inventory.util.CSVImportValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per file of the CPU-bound import steps at 1k, 100k and 1M rows: {@link CSVHelper#convert}
+ * (decode, parse and map everything into memory) and {@link CSVImportValidator#validate} over the
+ * parsed rows. Every tenth SKU is treated as already in the catalog, so the rejection path is
+ * covered too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CSVImportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private byte[] csv;
+    private List<ProductCSVDTO> parsedRows;
+    private Set<String> existingSkus;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csv = BenchmarkData.productCsv(rows, 5, true);
+        parsedRows = BenchmarkData.productRows(rows, 5);
+        existingSkus = new HashSet<>();
+        for (int i = 0; i < rows; i += 10) {
+            existingSkus.add(CSVImportValidator.skuKey("SKU" + i));
+        }
+    }
+
+    @Benchmark
+    public List<ProductCSVDTO> convert() {
+        return CSVHelper.convert(new BytesMultipartFile("products.csv", csv));
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        Set<String> seenSkus = new HashSet<>();
+        for (ProductCSVDTO dto : parsedRows) {
+            blackhole.consume(CSVImportValidator.validate(dto, existingSkus, seenSkus));
+        }
+    }
+
+    // In-memory upload, standing in for the servlet container's MultipartFile
+    private static final class BytesMultipartFile implements MultipartFile {
+        private final String fileName;
+        private final byte[] content;
+
+        BytesMultipartFile(String fileName, byte[] content) {
+            this.fileName = fileName;
+            this.content = content;
+        }
+
+        @Override public String getName() { return "file"; }
+        @Override public String getOriginalFilename() { return fileName; }
+        @Override public String getContentType() { return "text/csv"; }
+        @Override public boolean isEmpty() { return content.length == 0; }
+        @Override public long getSize() { return content.length; }
+        @Override public byte[] getBytes() { return content; }
+        @Override public InputStream getInputStream() { return new ByteArrayInputStream(content); }
+
+        @Override
+        public void transferTo(File dest) throws java.io.IOException {
+            Files.write(dest.toPath(), content);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+import com.emart.inventory.entity.CSVImport;
+import com.emart.inventory.entity.CSVImportItem;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.util.CSVHelper;
+import com.opencsv.bean.CsvToBeanBuilder;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of the two product CSV import paths, parsing and persistence included:
+ * <ul>
+ *   <li>{@code beanImport}: what {@code POST /api/products/import} did before it was moved onto the
+ *   staging pipeline. OpenCSV reflection binds each row to a {@link Product}, and each product is
+ *   saved in its own transaction.</li>
+ *   <li>{@code stagedImport}: the path of {@code CSVImportService}. The header-compiled mapping parses
+ *   rows in chunks, each chunk's SKUs are looked up in one query, and its items are written in one
+ *   batched transaction.</li>
+ * </ul>
+ * The generated file leaves the date columns empty, since the bean path can't bind ISO dates to the
+ * entity's LocalDateTime fields and would reject every row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImportPathBenchmark {
+
+    private static final int ROWS = 2_000;
+
+    private SessionFactory sessionFactory;
+    private Long importId;
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.open("import-path-bench", 50);
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            CSVImport csvImport = new CSVImport();
+            csvImport.setFileName("bench.csv");
+            csvImport.setUploadedBy("bench");
+            csvImport.setStatus(CSVImport.Status.PROCESSING);
+            session.persist(csvImport);
+            tx.commit();
+            importId = csvImport.getId();
+        }
+
+        csv = BenchmarkData.productCsv(ROWS, 0, false);
+    }
+
+    // Both paths write the same SKUs every invocation, so start each one from empty tables
+    @Setup(Level.Invocation)
+    public void clearRows() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            session.createMutationQuery("DELETE FROM CSVImportItem").executeUpdate();
+            session.createMutationQuery("DELETE FROM Product").executeUpdate();
+            tx.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int beanImport() throws Exception {
+        int imported = 0;
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8)) {
+            List<Product> products = new CsvToBeanBuilder<Product>(reader)
+                    .withType(Product.class)
+                    .withIgnoreLeadingWhiteSpace(true)
+                    .build()
+                    .parse();
+            for (Product product : products) {
+                if (product.getStatus() == null) {
+                    product.setStatus(Product.Status.PENDING);
+                }
+                try (Session session = sessionFactory.openSession()) {
+                    Transaction tx = session.beginTransaction();
+                    session.persist(product);
+                    tx.commit();
+                    imported++;
+                } catch (Exception e) {
+                    // The old endpoint swallowed row errors too
+                }
+            }
+        }
+        return imported;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int stagedImport() {
+        return CSVHelper.forEachChunk(new ByteArrayInputStream(csv), CSVHelper.DEFAULT_CHUNK_SIZE, chunk -> {
+            try (Session session = sessionFactory.openSession()) {
+                Transaction tx = session.beginTransaction();
+                Set<String> skus = new HashSet<>();
+                for (ProductCSVDTO dto : chunk) {
+                    skus.add(dto.getSku());
+                }
+                Set<String> existing = new HashSet<>(session.createQuery(
+                        "SELECT p.sku FROM Product p WHERE p.sku IN :skus", String.class)
+                        .setParameter("skus", skus)
+                        .getResultList());
+                CSVImport csvImport = session.getReference(CSVImport.class, importId);
+                for (ProductCSVDTO dto : chunk) {
+                    session.persist(toImportItem(dto, csvImport, existing.contains(dto.getSku())));
+                }
+                tx.commit();
+            }
+        });
+    }
+
+    // The field copy CSVImportService does when staging a row
+    private static CSVImportItem toImportItem(ProductCSVDTO dto, CSVImport csvImport, boolean skuExists) {
+        CSVImportItem item = new CSVImportItem();
+        item.setCsvImport(csvImport);
+        item.setRowNumber(dto.getRowNumber());
+        item.setName(dto.getName());
+        item.setDescription(dto.getDescription());
+        item.setSku(dto.getSku());
+        item.setBarcode(dto.getBarcode());
+        item.setCategoryName(dto.getCategoryName());
+        item.setSupplierName(dto.getSupplierName());
+        item.setUnit(dto.getUnit());
+        item.setPurchasePrice(dto.getPurchasePrice());
+        item.setMrp(dto.getMrp());
+        item.setMinStockLevel(dto.getMinStockLevel());
+        item.setMaxStockLevel(dto.getMaxStockLevel());
+        item.setBatchNumber(dto.getBatchNumber());
+        item.setManufacturerCode(dto.getManufacturerCode());
+        item.setQuantity(dto.getQuantity());
+        item.setSupplierEmail(dto.getSupplierEmail());
+        item.setSupplierPhone(dto.getSupplierPhone());
+        item.setSupplierAddress(dto.getSupplierAddress());
+        if (skuExists) {
+            item.setStatus(CSVImportItem.Status.REJECTED);
+            item.setErrorMessage("SKU already exists: " + dto.getSku());
+        } else {
+            item.setStatus(CSVImportItem.Status.PENDING);
+        }
+        return item;
+    }
+}
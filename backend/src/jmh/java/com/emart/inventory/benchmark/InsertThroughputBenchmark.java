@@ -0,0 +1,126 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.entity.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of the two bulk write paths: CSV import staging and stock movements. Each
+ * invocation persists {@code rows} entities in one transaction, the way the services do.
+ *
+ * <p>{@code jdbcBatchSize=1} sends one INSERT per row, which is what IDENTITY ids forced on every
+ * path; 50 matches application.properties. Runs against in-memory H2 in MySQL mode by default, which
+ * understates the gain since there is no network round trip per statement; see {@link BenchmarkDatabase}
+ * for pointing it at MySQL.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertThroughputBenchmark {
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    @Param({"1000"})
+    private int rows;
+
+    private SessionFactory sessionFactory;
+    private Long importId;
+    private Long productId;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.open("insert-bench", jdbcBatchSize);
+
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+
+            User user = new User();
+            user.setUsername("bench");
+            user.setEmail("bench@example.com");
+            user.setPassword("bench");
+            session.persist(user);
+
+            Product product = new Product();
+            product.setName("Benchmark product");
+            product.setSku("BENCH-0001");
+            session.persist(product);
+
+            CSVImport csvImport = new CSVImport();
+            csvImport.setFileName("bench.csv");
+            csvImport.setUploadedBy("bench");
+            csvImport.setStatus(CSVImport.Status.PROCESSING);
+            session.persist(csvImport);
+
+            tx.commit();
+            userId = user.getId();
+            productId = product.getId();
+            importId = csvImport.getId();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearRows() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            session.createMutationQuery("DELETE FROM CSVImportItem").executeUpdate();
+            session.createMutationQuery("DELETE FROM StockMovement").executeUpdate();
+            tx.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int stageImportItems() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            CSVImport csvImport = session.getReference(CSVImport.class, importId);
+            for (int i = 0; i < rows; i++) {
+                CSVImportItem item = new CSVImportItem();
+                item.setCsvImport(csvImport);
+                item.setName("Product " + i);
+                item.setSku("SKU-" + i);
+                item.setCategoryName("Category " + (i % 20));
+                item.setSupplierName("Supplier " + (i % 50));
+                item.setUnit("pcs");
+                item.setPurchasePrice(BigDecimal.valueOf(90));
+                item.setMrp(BigDecimal.valueOf(100));
+                item.setQuantity(10);
+                item.setManufacturerCode("MFR01");
+                item.setStatus(CSVImportItem.Status.PENDING);
+                session.persist(item);
+            }
+            tx.commit();
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public int recordStockMovements() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            Product product = session.getReference(Product.class, productId);
+            User user = session.getReference(User.class, userId);
+            for (int i = 0; i < rows; i++) {
+                StockMovement movement = new StockMovement(product, StockMovement.MovementType.IN, 1, user);
+                movement.setReference("BENCH");
+                session.persist(movement);
+            }
+            tx.commit();
+        }
+        return rows;
+    }
+}
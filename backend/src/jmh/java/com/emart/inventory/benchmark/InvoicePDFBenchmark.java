@@ -0,0 +1,53 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.entity.Invoice;
+import com.emart.inventory.entity.InvoiceItem;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.service.SupplierInvoicePDFService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to render a supplier invoice PDF with {@link SupplierInvoicePDFService#renderInvoicePDF} by
+ * number of invoice lines. Line counts stop at 10k: iText keeps the whole items table in memory until
+ * it is added, and a realistic invoice is far smaller than the 1M rows used for the import benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class InvoicePDFBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int lines;
+
+    // Rendering doesn't touch the repositories or the mail sender, so no Spring context is needed
+    private final SupplierInvoicePDFService pdfService = new SupplierInvoicePDFService();
+
+    private Invoice invoice;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> products = BenchmarkData.products(lines);
+        invoice = new Invoice("INV-BENCH-0001", products.get(0).getSupplier(), BigDecimal.ZERO);
+        invoice.setInvoiceDate(LocalDateTime.of(2024, 6, 1, 10, 0));
+        invoice.setDueDate(LocalDateTime.of(2024, 7, 1, 10, 0));
+        List<InvoiceItem> items = new ArrayList<>(lines);
+        for (Product product : products) {
+            items.add(new InvoiceItem(invoice, product, 1 + (int) (product.getId() % 10), product.getMrp()));
+        }
+        invoice.setItems(items);
+    }
+
+    @Benchmark
+    public byte[] renderInvoice() throws Exception {
+        return pdfService.renderInvoicePDF(invoice);
+    }
+}
@@ -0,0 +1,42 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.controller.ProductController;
+import com.emart.inventory.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to map loaded products to the {@link ProductController.ProductDTO}s the product list returns,
+ * at 1k, 100k and 1M products. Category and supplier are already initialised, so this is the mapping
+ * cost alone, without lazy loading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProductDTOBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = BenchmarkData.products(rows);
+    }
+
+    @Benchmark
+    public List<ProductController.ProductDTO> toDTOs() {
+        List<ProductController.ProductDTO> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add(new ProductController.ProductDTO(product));
+        }
+        return dtos;
+    }
+}
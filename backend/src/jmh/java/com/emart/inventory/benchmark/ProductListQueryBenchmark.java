@@ -0,0 +1,123 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.controller.ProductController;
+import com.emart.inventory.dto.ProductListView;
+import com.emart.inventory.entity.Category;
+import com.emart.inventory.entity.Inventory;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.entity.Supplier;
+import com.emart.inventory.repository.ProductRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * One page of 20 products for the product list, with 10k products in the table:
+ * <ul>
+ *   <li>{@code entityPage}: loads entities and maps them to DTOs, as the list did before. Each product
+ *   fires its own selects for the eager inventory and for the lazy category and supplier.</li>
+ *   <li>{@code viewPage}: the {@link ProductRepository#LIST_VIEW} projection, one joined select.</li>
+ * </ul>
+ * The statements each listing path runs are asserted by {@code ProductListQueryCountTest}; this only times them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductListQueryBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String ORDER = "ORDER BY p.createdAt DESC";
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.open("product-list-bench", 50);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ProductController.ProductDTO> entityPage() {
+        try (Session session = sessionFactory.openSession()) {
+            List<Product> products = session.createQuery("FROM Product p WHERE p.isActive = true " + ORDER, Product.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .list();
+            return map(products, ProductController.ProductDTO::new);
+        }
+    }
+
+    @Benchmark
+    public List<ProductController.ProductDTO> viewPage() {
+        try (Session session = sessionFactory.openSession()) {
+            List<ProductListView> views = session.createQuery(
+                            ProductRepository.LIST_VIEW + "WHERE p.isActive = true " + ORDER, ProductListView.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .list();
+            return map(views, ProductController.ProductDTO::new);
+        }
+    }
+
+    private static <T> List<ProductController.ProductDTO> map(List<T> rows, Function<T, ProductController.ProductDTO> toDTO) {
+        List<ProductController.ProductDTO> dtos = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            dtos.add(toDTO.apply(row));
+        }
+        return dtos;
+    }
+
+    private void seed() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            List<Category> categories = new ArrayList<>();
+            for (int i = 0; i < BenchmarkData.CATEGORIES; i++) {
+                Category category = new Category("Category " + i, null);
+                session.persist(category);
+                categories.add(category);
+            }
+            List<Supplier> suppliers = new ArrayList<>();
+            for (int i = 0; i < BenchmarkData.SUPPLIERS; i++) {
+                Supplier supplier = new Supplier("Supplier " + i, "Contact " + i, "supplier" + i + "@example.com", "9876543210");
+                session.persist(supplier);
+                suppliers.add(supplier);
+            }
+            // Auditing isn't active outside Spring, so creation times are set here
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+            for (int i = 0; i < ROWS; i++) {
+                Product product = new Product();
+                product.setName("Product " + i);
+                product.setSku("SKU" + i);
+                product.setUnit("pcs");
+                product.setPurchasePrice(BigDecimal.valueOf(10050 + i % 900, 2));
+                product.setMrp(BigDecimal.valueOf(15000 + i % 900, 2));
+                product.setMinStockLevel(10);
+                product.setMaxStockLevel(100);
+                product.setQuantity(i % 500);
+                product.setStatus(Product.Status.APPROVED);
+                product.setCategory(categories.get(i % categories.size()));
+                product.setSupplier(suppliers.get(i % suppliers.size()));
+                product.setCreatedAt(createdAt.plusMinutes(i));
+                session.persist(product);
+                session.persist(new Inventory(product, "MAIN", i % 500));
+            }
+            tx.commit();
+        }
+    }
+}
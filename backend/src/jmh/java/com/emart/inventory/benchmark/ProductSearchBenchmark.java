@@ -0,0 +1,74 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a product search over 1M products: {@link ProductSearchIndex} against a scan of every
+ * name and SKU, which is the work {@code LIKE '%term%'} leaves the database. The terms range from a single
+ * SKU and a name matching about a hundred products, to {@code prod}, which matches every product, and a
+ * two-letter term that is shorter than a trigram.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+
+    @Param({"sku424242", "product 4242", "prod", "42"})
+    private String term;
+
+    private ProductSearchIndex index;
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = BenchmarkData.products(ROWS);
+        index = new ProductSearchIndex();
+        index.load(List.of());
+        for (Product product : products) {
+            index.put(product);
+        }
+    }
+
+    @Benchmark
+    public Page<Long> index() {
+        return index.search(term, true, null, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Long> scan(Blackhole blackhole) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        List<Long> ids = new ArrayList<>(FIRST_PAGE.getPageSize());
+        long total = 0;
+        for (int i = products.size() - 1; i >= 0; i--) {
+            Product product = products.get(i);
+            if (product.getName().toLowerCase(Locale.ROOT).contains(needle)
+                    || product.getSku().toLowerCase(Locale.ROOT).contains(needle)) {
+                if (ids.size() < FIRST_PAGE.getPageSize()) {
+                    ids.add(product.getId());
+                }
+                total++;
+            }
+        }
+        blackhole.consume(total);
+        return ids;
+    }
+}
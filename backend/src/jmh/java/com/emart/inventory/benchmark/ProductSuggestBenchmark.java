@@ -0,0 +1,84 @@
+package com.emart.inventory.benchmark;
+
+import com.emart.inventory.dto.ProductSearchEntry;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.service.ProductSuggestIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top 10 suggestions for a prefix over 1M products with skewed sales volumes, and how long a background
+ * rebuild of the suggestions takes at that size. {@code p} matches every product name, {@code product 42}
+ * about 111 thousand, {@code sku4242} about a hundred.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProductSuggestBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Param({"p", "product 42", "sku4242"})
+    private String prefix;
+
+    private ProductSuggestIndex index;
+    private List<ProductSearchEntry> entries;
+    private Map<Long, Long> salesVolumes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entries = new ArrayList<>(ROWS);
+        for (Product product : BenchmarkData.products(ROWS)) {
+            entries.add(new Entry(product));
+        }
+        // Most products sell little and a few sell a lot, as on real invoices
+        SplittableRandom random = new SplittableRandom(42);
+        salesVolumes = new HashMap<>();
+        for (ProductSearchEntry entry : entries) {
+            if (random.nextInt(4) == 0) {
+                salesVolumes.put(entry.getId(), (long) (Math.pow(random.nextDouble(), 4) * 10_000) + 1);
+            }
+        }
+        index = new ProductSuggestIndex();
+        index.load(entries, salesVolumes);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ProductSuggestIndex.Suggestion> suggest() {
+        return index.suggest(prefix, 10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProductSuggestIndex rebuild() {
+        ProductSuggestIndex rebuilt = new ProductSuggestIndex();
+        rebuilt.load(entries, salesVolumes);
+        return rebuilt;
+    }
+
+    private static final class Entry implements ProductSearchEntry {
+        private final Product product;
+
+        Entry(Product product) {
+            this.product = product;
+        }
+
+        public Long getId() { return product.getId(); }
+        public String getName() { return product.getName(); }
+        public String getSku() { return product.getSku(); }
+        public String getBarcode() { return product.getBarcode(); }
+        public Long getCategoryId() { return product.getCategory().getId(); }
+        public Boolean getIsActive() { return product.getIsActive(); }
+        public LocalDateTime getCreatedAt() { return product.getCreatedAt(); }
+    }
+}
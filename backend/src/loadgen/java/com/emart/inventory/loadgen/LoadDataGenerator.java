@@ -0,0 +1,562 @@
+package com.emart.inventory.loadgen;
+
+import com.emart.inventory.entity.*;
+import com.emart.inventory.util.CSVHelper;
+import com.opencsv.CSVWriter;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the schema with a synthetic catalog and transaction history for load and performance testing,
+ * through the application's own entities, and writes matching CSV import files.
+ *
+ * <p>Runs against an embedded H2 database in MySQL mode under {@code loadgen.out} by default, so no
+ * external services are needed:
+ * <pre>
+ * mvn -Ploadgen compile exec:java                        # full size: 1M products, 10M stock movements, ...
+ * mvn -Ploadgen compile exec:java -Dloadgen.scale=0.01   # 1% of every volume, for a quick run
+ * </pre>
+ * The same seed and reference date always produce the same data. Each table draws from its own
+ * random stream, so changing one volume doesn't reshuffle the others. Every setting is a system
+ * property; see {@link #LoadDataGenerator()} for the list and defaults.
+ */
+public class LoadDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDataGenerator.class);
+
+    private static final Class<?>[] ENTITIES = {
+            Alert.class, Barcode.class, BarcodeNew.class, CSVImport.class, CSVImportItem.class,
+            Category.class, Inventory.class, Invoice.class, InvoiceItem.class, Outlet.class,
+            Product.class, StockMovement.class, Supplier.class, User.class
+    };
+
+    // Rows persisted between flushes, and flushes per transaction
+    private static final int FLUSH_SIZE = 1000;
+    private static final int FLUSHES_PER_COMMIT = 10;
+
+    private static final String[] ADJECTIVES = {
+            "Organic", "Classic", "Premium", "Fresh", "Instant", "Herbal", "Crunchy", "Spicy", "Low Fat", "Family Pack",
+            "Roasted", "Natural", "Golden", "Deluxe", "Mini", "Sugar Free", "Whole", "Smart", "Ultra", "Eco"
+    };
+    private static final String[] NOUNS = {
+            "Rice", "Atta", "Tea", "Coffee", "Biscuits", "Soap", "Shampoo", "Detergent", "Oil", "Noodles",
+            "Juice", "Paneer", "Ghee", "Masala", "Toothpaste", "Chips", "Dal", "Sugar", "Salt", "Honey",
+            "Batteries", "Bulb", "Charger", "Notebook", "Pen", "Cleaner", "Towel", "Jam", "Sauce", "Butter"
+    };
+    private static final String[] CATEGORY_GROUPS = {
+            "Grocery", "Beverages", "Personal Care", "Home Care", "Dairy", "Snacks", "Electronics", "Stationery",
+            "Frozen", "Bakery"
+    };
+    private static final String[] CITIES = {
+            "Chennai", "Bengaluru", "Mumbai", "Delhi", "Hyderabad", "Pune", "Kolkata", "Coimbatore", "Madurai", "Kochi"
+    };
+    private static final String[] STATES = {
+            "Tamil Nadu", "Karnataka", "Maharashtra", "Delhi", "Telangana", "Maharashtra", "West Bengal",
+            "Tamil Nadu", "Tamil Nadu", "Kerala"
+    };
+    private static final String[] UNITS = {"pcs", "kg", "g", "l", "ml", "box", "pack"};
+
+    private final long seed;
+    private final int products;
+    private final long stockMovements;
+    private final int invoices;
+    private final int suppliers;
+    private final int outlets;
+    private final int categories;
+    private final int users;
+    private final int csvRows;
+    private final Path outDir;
+    private final LocalDate referenceDate;
+    private final String jdbcUrl;
+    private final String jdbcUser;
+    private final String jdbcPassword;
+    private final String ddl;
+
+    // Kept per product so movements and invoice lines can reference them without loading anything back
+    private long[] productIds;
+    private long[] productMrpPaise;
+    private long[] supplierIds;
+    private String[] outletNames;
+    private long[] userIds;
+
+    /**
+     * Settings, all optional system properties:
+     * <ul>
+     *   <li>{@code loadgen.seed} (42) and {@code loadgen.reference-date} (today): dates are spread around
+     *   the reference date, so pin it as well for identical reruns</li>
+     *   <li>{@code loadgen.scale} (1.0): multiplies every volume below</li>
+     *   <li>{@code loadgen.products} (1,000,000), {@code loadgen.stock-movements} (10,000,000),
+     *   {@code loadgen.invoices} (500,000, with 1 to 12 lines each), {@code loadgen.suppliers} (5,000),
+     *   {@code loadgen.outlets} (2,000), {@code loadgen.categories} (400), {@code loadgen.users} (50),
+     *   {@code loadgen.csv-rows} (100,000 per CSV file)</li>
+     *   <li>{@code loadgen.out} (target/loadgen): CSV files and the H2 database</li>
+     *   <li>{@code loadgen.jdbc.url}, {@code .user}, {@code .password}: another database instead of H2</li>
+     *   <li>{@code loadgen.ddl}: {@code create} (drops existing tables) for the embedded H2 database,
+     *   {@code update} when a JDBC URL is given</li>
+     * </ul>
+     */
+    public LoadDataGenerator() {
+        double scale = Double.parseDouble(System.getProperty("loadgen.scale", "1.0"));
+        seed = Long.getLong("loadgen.seed", 42L);
+        products = (int) scaled("loadgen.products", 1_000_000, scale);
+        stockMovements = scaled("loadgen.stock-movements", 10_000_000, scale);
+        invoices = (int) scaled("loadgen.invoices", 500_000, scale);
+        suppliers = (int) scaled("loadgen.suppliers", 5_000, scale);
+        outlets = (int) scaled("loadgen.outlets", 2_000, scale);
+        categories = (int) scaled("loadgen.categories", 400, scale);
+        users = (int) scaled("loadgen.users", 50, scale);
+        csvRows = (int) scaled("loadgen.csv-rows", 100_000, scale);
+        outDir = Paths.get(System.getProperty("loadgen.out", "target/loadgen")).toAbsolutePath();
+        String date = System.getProperty("loadgen.reference-date");
+        referenceDate = date != null ? LocalDate.parse(date) : LocalDate.now();
+
+        String url = System.getProperty("loadgen.jdbc.url");
+        jdbcUrl = url != null ? url
+                : "jdbc:h2:file:" + outDir.resolve("inventory") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        jdbcUser = System.getProperty("loadgen.jdbc.user", "sa");
+        jdbcPassword = System.getProperty("loadgen.jdbc.password", "");
+        ddl = System.getProperty("loadgen.ddl", url != null ? "update" : "create");
+    }
+
+    public static void main(String[] args) throws IOException {
+        new LoadDataGenerator().run();
+    }
+
+    public void run() throws IOException {
+        Files.createDirectories(outDir);
+        logger.info("Generating into {} (seed {}, reference date {}): {} products, {} stock movements, {} invoices, " +
+                "{} suppliers, {} outlets", jdbcUrl, seed, referenceDate, products, stockMovements, invoices,
+                suppliers, outlets);
+        long started = System.currentTimeMillis();
+
+        try (SessionFactory sessionFactory = openSessionFactory()) {
+            long[] categoryIds = generateCategories(sessionFactory);
+            generateSuppliers(sessionFactory);
+            generateOutlets(sessionFactory);
+            generateUsers(sessionFactory);
+            generateProducts(sessionFactory, categoryIds);
+            generateStockMovements(sessionFactory);
+            generateInvoices(sessionFactory);
+        }
+        writeCsvFiles();
+
+        logger.info("Done in {} s", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private SessionFactory openSessionFactory() {
+        Configuration configuration = new Configuration();
+        for (Class<?> entity : ENTITIES) {
+            configuration.addAnnotatedClass(entity);
+        }
+        configuration.setProperty(AvailableSettings.URL, jdbcUrl);
+        configuration.setProperty(AvailableSettings.USER, jdbcUser);
+        configuration.setProperty(AvailableSettings.PASS, jdbcPassword);
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, ddl);
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        return configuration.buildSessionFactory();
+    }
+
+    // --- Reference data ---
+
+    private long[] generateCategories(SessionFactory sessionFactory) {
+        long[] ids = new long[categories];
+        SplittableRandom random = stream("categories");
+        generate(sessionFactory, "categories", categories, (session, i) -> {
+            Category category = new Category(categoryName(i), "Synthetic " + CATEGORY_GROUPS[i % CATEGORY_GROUPS.length]
+                    + " category " + i);
+            category.setCreatedAt(pastDateTime(random, 1500));
+            session.persist(category);
+            ids[i] = category.getId();
+        });
+        return ids;
+    }
+
+    private void generateSuppliers(SessionFactory sessionFactory) {
+        supplierIds = new long[suppliers];
+        SplittableRandom random = stream("suppliers");
+        generate(sessionFactory, "suppliers", suppliers, (session, i) -> {
+            int city = random.nextInt(CITIES.length);
+            Supplier supplier = new Supplier(supplierName(i), "Contact " + i, supplierEmail(i), phone(random));
+            supplier.setAddress((1 + random.nextInt(300)) + ", Main Road, " + CITIES[city]);
+            supplier.setCity(CITIES[city]);
+            supplier.setState(STATES[city]);
+            supplier.setPincode(String.valueOf(600000 + random.nextInt(99999)));
+            supplier.setGstNumber(String.format("%02dABCDE%04dF1Z%d", 10 + city, i % 10000, i % 10));
+            supplier.setCreatedAt(pastDateTime(random, 1500));
+            session.persist(supplier);
+            supplierIds[i] = supplier.getId();
+        });
+    }
+
+    private void generateOutlets(SessionFactory sessionFactory) {
+        outletNames = new String[outlets];
+        SplittableRandom random = stream("outlets");
+        generate(sessionFactory, "outlets", outlets, (session, i) -> {
+            String city = CITIES[random.nextInt(CITIES.length)];
+            outletNames[i] = "Outlet " + city + " " + i;
+            session.persist(new Outlet(outletNames[i], city, phone(random), "Manager " + i));
+        });
+    }
+
+    private void generateUsers(SessionFactory sessionFactory) {
+        userIds = new long[Math.max(users, 1)];
+        User.Role[] roles = {User.Role.ADMIN, User.Role.MAKER, User.Role.CHECKER, User.Role.USER};
+        generate(sessionFactory, "users", userIds.length, (session, i) -> {
+            User user = new User("loadgen" + i, "loadgen" + i + "@example.com", "loadgen");
+            user.setRole(roles[i % roles.length]);
+            session.persist(user);
+            userIds[i] = user.getId();
+        });
+    }
+
+    // --- Catalog ---
+
+    private void generateProducts(SessionFactory sessionFactory, long[] categoryIds) {
+        productIds = new long[products];
+        productMrpPaise = new long[products];
+        SplittableRandom random = stream("products");
+        generate(sessionFactory, "products", products, (session, i) -> {
+            ProductRow row = productRow(random, i, false);
+            Product product = new Product();
+            product.setSku(row.sku);
+            product.setName(row.name);
+            product.setDescription(row.description);
+            product.setBarcode(row.barcode);
+            product.setCategory(session.getReference(Category.class, categoryIds[row.category]));
+            product.setSupplier(session.getReference(Supplier.class, supplierIds[row.supplier]));
+            product.setUnit(row.unit);
+            product.setPurchasePrice(BigDecimal.valueOf(row.purchasePaise, 2));
+            product.setMrp(BigDecimal.valueOf(row.mrpPaise, 2));
+            product.setMinStockLevel(row.minStock);
+            product.setMaxStockLevel(row.maxStock);
+            product.setQuantity(row.quantity);
+            product.setExpiryDate(row.expiry != null ? row.expiry.atStartOfDay() : null);
+            product.setManufacturerDate(row.manufactured != null ? row.manufactured.atStartOfDay() : null);
+            product.setBatchNumber(row.batch);
+            product.setManufacturerCode(row.manufacturerCode);
+            // Mostly approved catalog with a tail still waiting for or refused by a checker
+            int status = random.nextInt(100);
+            product.setStatus(status < 92 ? Product.Status.APPROVED : status < 98 ? Product.Status.PENDING : Product.Status.REJECTED);
+            product.setIsActive(random.nextInt(100) >= 3);
+            product.setCreatedAt(pastDateTime(random, 1000));
+            session.persist(product);
+            session.persist(new Inventory(product, "warehouse", row.quantity));
+            productIds[i] = product.getId();
+            productMrpPaise[i] = row.mrpPaise;
+        });
+    }
+
+    /**
+     * One catalog row, shared by the database and the CSV files so both describe the same products.
+     * Expiry is spread the way a mixed store sees it: about a fifth of the lines never expire, a few
+     * are already past their date, and the rest run out over the next three years with more of them
+     * in the first few months.
+     */
+    private ProductRow productRow(SplittableRandom random, int i, boolean newSku) {
+        ProductRow row = new ProductRow();
+        row.sku = newSku ? String.format("NEW-%07d", i) : sku(i);
+        row.name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + i;
+        row.description = "Synthetic product " + i;
+        row.barcode = String.valueOf(8900000000000L + (newSku ? 5_000_000L : 0L) + i);
+        row.category = random.nextInt(Math.max(categories, 1));
+        row.supplier = random.nextInt(Math.max(suppliers, 1));
+        row.unit = UNITS[random.nextInt(UNITS.length)];
+        // Prices from ₹5 to ₹5000, skewed towards the cheap end
+        row.purchasePaise = 500 + (long) (Math.pow(random.nextDouble(), 3) * 499_500);
+        row.mrpPaise = row.purchasePaise + row.purchasePaise * (5 + random.nextInt(40)) / 100;
+        row.minStock = 5 + random.nextInt(46);
+        row.maxStock = row.minStock * (4 + random.nextInt(17));
+        row.quantity = random.nextInt(row.maxStock + 1);
+        row.manufacturerCode = String.format("%05d", random.nextInt(100_000));
+        row.batch = "B" + (referenceDate.getYear() % 100) + String.format("%05d", random.nextInt(100_000));
+
+        int shelf = random.nextInt(100);
+        if (shelf >= 20) {
+            int daysLeft;
+            if (shelf < 24) {
+                daysLeft = -1 - random.nextInt(90);        // expired
+            } else if (shelf < 34) {
+                daysLeft = random.nextInt(31);             // expiring within a month
+            } else if (shelf < 60) {
+                daysLeft = 31 + random.nextInt(150);       // within six months
+            } else {
+                daysLeft = 181 + random.nextInt(915);      // six months to three years
+            }
+            row.expiry = referenceDate.plusDays(daysLeft);
+            row.manufactured = row.expiry.minusDays(90 + random.nextInt(640));
+        }
+        return row;
+    }
+
+    // --- Transactions ---
+
+    private void generateStockMovements(SessionFactory sessionFactory) {
+        SplittableRandom random = stream("stock_movements");
+        StockMovement.MovementType[] types = StockMovement.MovementType.values();
+        generate(sessionFactory, "stock_movements", stockMovements, (session, i) -> {
+            int type = random.nextInt(100);
+            StockMovement.MovementType movementType = type < 40 ? types[0] : type < 90 ? types[1] : type < 95 ? types[2] : types[3];
+            int product = hotIndex(random, products);
+            StockMovement movement = new StockMovement(
+                    session.getReference(Product.class, productIds[product]), movementType,
+                    movementType == StockMovement.MovementType.IN ? 10 + random.nextInt(191) : 1 + random.nextInt(20),
+                    session.getReference(User.class, userIds[random.nextInt(userIds.length)]));
+            String outlet = outlets > 0 ? outletNames[random.nextInt(outlets)] : "store";
+            switch (movementType) {
+                case IN -> {
+                    movement.setFromLocation("supplier");
+                    movement.setToLocation("warehouse");
+                    movement.setReference("GRN-" + i);
+                }
+                case OUT -> {
+                    movement.setFromLocation("warehouse");
+                    movement.setToLocation(outlet);
+                    movement.setReference("SALE-" + i);
+                }
+                case TRANSFER -> {
+                    movement.setFromLocation("warehouse");
+                    movement.setToLocation(outlet);
+                    movement.setReference("TRF-" + i);
+                }
+                default -> movement.setReference("ADJ-" + i);
+            }
+            movement.setCreatedAt(pastDateTime(random, 730));
+            session.persist(movement);
+        });
+    }
+
+    private void generateInvoices(SessionFactory sessionFactory) {
+        SplittableRandom random = stream("invoices");
+        BigDecimal gstRate = BigDecimal.valueOf(18);
+        generate(sessionFactory, "invoices", invoices, (session, i) -> {
+            LocalDateTime invoiceDate = pastDateTime(random, 730);
+            Invoice invoice = new Invoice(String.format("INV-%08d", i + 1),
+                    session.getReference(Supplier.class, supplierIds[hotIndex(random, suppliers)]), BigDecimal.ZERO);
+            invoice.setInvoiceDate(invoiceDate);
+            invoice.setDueDate(invoiceDate.plusDays(30));
+            invoice.setCreatedBy(session.getReference(User.class, userIds[random.nextInt(userIds.length)]));
+            invoice.setCreatedAt(invoiceDate);
+
+            long subtotalPaise = 0;
+            int lines = 1 + Math.min(random.nextInt(6) + random.nextInt(7), 11);
+            List<InvoiceItem> items = new ArrayList<>(lines);
+            for (int line = 0; line < lines; line++) {
+                int product = hotIndex(random, products);
+                int quantity = 1 + random.nextInt(24);
+                InvoiceItem item = new InvoiceItem(invoice, session.getReference(Product.class, productIds[product]),
+                        quantity, BigDecimal.valueOf(productMrpPaise[product], 2));
+                item.setGstRate(gstRate);
+                item.setGstAmount(BigDecimal.valueOf(productMrpPaise[product] * quantity * 18 / 100, 2));
+                item.setCreatedAt(invoiceDate);
+                items.add(item);
+                subtotalPaise += productMrpPaise[product] * quantity;
+            }
+
+            long gstPaise = subtotalPaise * 18 / 100;
+            long totalPaise = subtotalPaise + gstPaise;
+            // Older invoices are more likely to be settled
+            int paid = random.nextInt(100);
+            boolean old = invoiceDate.isBefore(referenceDate.minusDays(60).atStartOfDay());
+            long paidPaise = paid < (old ? 80 : 30) ? totalPaise : paid < (old ? 90 : 55) ? totalPaise / 2 : 0;
+            invoice.setSubtotal(BigDecimal.valueOf(subtotalPaise, 2));
+            invoice.setGstAmount(BigDecimal.valueOf(gstPaise, 2));
+            invoice.setTotalAmount(BigDecimal.valueOf(totalPaise, 2));
+            invoice.setPaidAmount(BigDecimal.valueOf(paidPaise, 2));
+            invoice.setBalanceAmount(BigDecimal.valueOf(totalPaise - paidPaise, 2));
+            invoice.setStatus(paidPaise == totalPaise ? Invoice.Status.PAID
+                    : invoice.getDueDate().isBefore(referenceDate.atStartOfDay()) ? Invoice.Status.OVERDUE
+                    : paidPaise > 0 ? Invoice.Status.PARTIAL : Invoice.Status.PENDING);
+            // Totals are known before the insert, so no UPDATE follows it
+            session.persist(invoice);
+            for (InvoiceItem item : items) {
+                session.persist(item);
+            }
+        });
+    }
+
+    // --- CSV import files ---
+
+    /**
+     * Writes three template-format import files next to the database: new products, a full-catalog
+     * style feed of existing SKUs with about one row in ten changed (for upsert mode), and a file with
+     * about one row in twenty broken in the ways validation rejects.
+     */
+    private void writeCsvFiles() throws IOException {
+        SplittableRandom random = stream("csv");
+        Path newProducts = outDir.resolve("import-new-products.csv");
+        try (CSVWriter writer = csvWriter(newProducts)) {
+            for (int i = 0; i < csvRows; i++) {
+                writer.writeNext(toCsv(productRow(random, i, true)));
+            }
+        }
+
+        Path feed = outDir.resolve("import-catalog-feed.csv");
+        try (CSVWriter writer = csvWriter(feed)) {
+            // Replays the catalog's own random stream, so unchanged rows match what is in the database
+            SplittableRandom catalog = stream("products");
+            int rows = Math.min(csvRows, products);
+            for (int i = 0; i < rows; i++) {
+                ProductRow row = productRow(catalog, i, false);
+                catalog.nextInt(100); // status
+                catalog.nextInt(100); // active
+                pastDateTime(catalog, 1000);
+                if (random.nextInt(10) == 0) {
+                    row.mrpPaise += 100 + random.nextInt(1000);
+                }
+                writer.writeNext(toCsv(row));
+            }
+        }
+
+        Path dirty = outDir.resolve("import-with-errors.csv");
+        try (CSVWriter writer = csvWriter(dirty)) {
+            for (int i = 0; i < csvRows; i++) {
+                String[] line = toCsv(productRow(random, csvRows + i, true));
+                if (random.nextInt(20) == 0) {
+                    switch (random.nextInt(5)) {
+                        case 0 -> line[0] = "";                                // missing name
+                        case 1 -> line[7] = "N/A";                             // bad number
+                        case 2 -> line[11] = "31/12/2025";                     // bad date
+                        case 3 -> line[14] = "12";                             // short manufacturer code
+                        default -> line[2] = String.format("NEW-%07d", csvRows); // duplicate SKU
+                    }
+                }
+                writer.writeNext(line);
+            }
+        }
+        logger.info("Wrote {}, {} and {} with {} rows each", newProducts.getFileName(), feed.getFileName(),
+                dirty.getFileName(), csvRows);
+    }
+
+    private CSVWriter csvWriter(Path file) throws IOException {
+        Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        CSVWriter writer = new CSVWriter(out);
+        writer.writeNext(CSVHelper.TEMPLATE_HEADER);
+        return writer;
+    }
+
+    private String[] toCsv(ProductRow row) {
+        return new String[] {
+            row.name, row.description, row.sku, row.barcode, categoryName(row.category), supplierName(row.supplier),
+            row.unit, BigDecimal.valueOf(row.purchasePaise, 2).toPlainString(),
+            BigDecimal.valueOf(row.mrpPaise, 2).toPlainString(), String.valueOf(row.minStock),
+            String.valueOf(row.maxStock), row.expiry != null ? row.expiry.toString() : "",
+            row.manufactured != null ? row.manufactured.toString() : "", row.batch, row.manufacturerCode,
+            // Phone and address stay empty so an upsert of the feed doesn't rewrite supplier contacts
+            String.valueOf(row.quantity), supplierEmail(row.supplier), "", ""
+        };
+    }
+
+    // --- Helpers ---
+
+    private interface RowWriter {
+        void write(Session session, int index);
+    }
+
+    /**
+     * Persists {@code count} rows, flushing and clearing the session every {@link #FLUSH_SIZE} rows so
+     * inserts go out in JDBC batches and memory stays flat.
+     */
+    private void generate(SessionFactory sessionFactory, String table, long count, RowWriter rowWriter) {
+        long started = System.currentTimeMillis();
+        long nextLog = started + 10_000;
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            for (long i = 0; i < count; i++) {
+                rowWriter.write(session, (int) i);
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                    if ((i + 1) % (FLUSH_SIZE * FLUSHES_PER_COMMIT) == 0) {
+                        tx.commit();
+                        tx = session.beginTransaction();
+                    }
+                    if (System.currentTimeMillis() >= nextLog) {
+                        logger.info("{}: {} / {} rows", table, i + 1, count);
+                        nextLog = System.currentTimeMillis() + 10_000;
+                    }
+                }
+            }
+            tx.commit();
+        }
+        long millis = Math.max(System.currentTimeMillis() - started, 1);
+        logger.info("{}: {} rows in {} ms ({} rows/s)", table, count, millis, count * 1000 / millis);
+    }
+
+    private SplittableRandom stream(String table) {
+        return new SplittableRandom(seed * 31 + table.hashCode());
+    }
+
+    private long scaled(String property, long fullSize, double scale) {
+        Long explicit = Long.getLong(property);
+        return explicit != null ? explicit : Math.max(1, Math.round(fullSize * scale));
+    }
+
+    // Skewed pick: the first few percent of the range get most of the traffic, like best sellers
+    private static int hotIndex(SplittableRandom random, int size) {
+        double u = random.nextDouble();
+        return (int) (size * u * u * u);
+    }
+
+    private LocalDateTime pastDateTime(SplittableRandom random, int maxDaysBack) {
+        return referenceDate.atStartOfDay().minusDays(random.nextInt(maxDaysBack))
+                .plusSeconds(random.nextInt(86_400));
+    }
+
+    private static String phone(SplittableRandom random) {
+        return String.valueOf(9_000_000_000L + random.nextLong(1_000_000_000L));
+    }
+
+    private static String sku(int i) {
+        return String.format("SKU-%07d", i);
+    }
+
+    private static String categoryName(int i) {
+        return CATEGORY_GROUPS[i % CATEGORY_GROUPS.length] + " " + i;
+    }
+
+    private static String supplierName(int i) {
+        return "Supplier " + i;
+    }
+
+    private static String supplierEmail(int i) {
+        return "supplier" + i + "@example.com";
+    }
+
+    private static class ProductRow {
+        String sku;
+        String name;
+        String description;
+        String barcode;
+        int category;
+        int supplier;
+        String unit;
+        long purchasePaise;
+        long mrpPaise;
+        int minStock;
+        int maxStock;
+        int quantity;
+        String manufacturerCode;
+        String batch;
+        LocalDate expiry;
+        LocalDate manufactured;
+    }
+}
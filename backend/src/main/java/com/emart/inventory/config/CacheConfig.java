@@ -0,0 +1,35 @@
+package com.emart.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process Caffeine caches for reference data that rarely changes. Entries are bounded by size and
+ * expire after a TTL, both set by {@code spring.cache.caffeine.spec}. The services evict them on every
+ * write. Evictions wait until the writing transaction commits; evicting earlier would let a concurrent
+ * read cache the old row again before the new one is visible. Hit and miss counts are published by
+ * actuator as {@code cache.gets}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String SUPPLIERS = "suppliers";
+    public static final String PRODUCT_BY_SKU = "productBySku";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${spring.cache.caffeine.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec) {
+        // Named up front so actuator registers their metrics at startup
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(
+                CATEGORIES, SUPPLIERS, PRODUCT_BY_SKU);
+        caffeine.setCacheSpecification(spec);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
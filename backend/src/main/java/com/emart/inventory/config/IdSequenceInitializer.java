@@ -0,0 +1,67 @@
+package com.emart.inventory.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+
+/**
+ * Entity ids come from pooled sequences (emulated with {@code <table>_seq} tables on MySQL) so Hibernate
+ * can batch inserts. Tables that were filled while ids were AUTO_INCREMENT need their sequence moved
+ * past the current max id, otherwise the first allocated blocks would collide with existing rows.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> entityClass = entityType.getJavaType();
+            Table table = entityClass.getAnnotation(Table.class);
+            SequenceGenerator generator = findSequenceGenerator(entityClass);
+            if (table == null || generator == null) {
+                continue;
+            }
+            try {
+                // The pooled optimizer hands out (next_val - allocationSize, next_val], so stay one block ahead of max(id)
+                int updated = jdbcTemplate.update(
+                        "UPDATE " + generator.sequenceName() + " SET next_val = GREATEST(next_val, " +
+                        "(SELECT COALESCE(MAX(id), 0) + ? FROM " + table.name() + "))",
+                        generator.allocationSize() + 1);
+                if (updated == 0) {
+                    jdbcTemplate.update("INSERT INTO " + generator.sequenceName() + " (next_val) " +
+                            "SELECT COALESCE(MAX(id), 0) + ? FROM " + table.name(), generator.allocationSize() + 1);
+                }
+            } catch (Exception e) {
+                logger.error("Could not align id sequence {} with table {}: {}",
+                        generator.sequenceName(), table.name(), e.getMessage());
+            }
+        }
+    }
+
+    private SequenceGenerator findSequenceGenerator(Class<?> entityClass) {
+        for (Field field : entityClass.getDeclaredFields()) {
+            SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+            if (generator != null) {
+                return generator;
+            }
+        }
+        return null;
+    }
+}
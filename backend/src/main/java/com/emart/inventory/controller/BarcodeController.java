@@ -1,28 +1,81 @@
 package com.emart.inventory.controller;
 
 import com.emart.inventory.entity.Barcode;
+import com.emart.inventory.service.BarcodeIndex;
 import com.emart.inventory.service.BarcodeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/barcodes")
 public class BarcodeController {
 
+    private static final int MAX_RESOLVE_CODES = 500;
+
     @Autowired
     private BarcodeService barcodeService;
 
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
     @PostMapping("/generate/{productId}")
     public Barcode generateBarcode(@PathVariable Long productId) {
         return barcodeService.generateBarcodeForProduct(productId);
     }
 
+    /**
+     * Resolves a batch of scanned codes against every barcode source at once, e.g.
+     * {@code ["8901234500019", "8901234500026"]}. Returns the product for each code that matched an active
+     * product and lists the ones that didn't.
+     */
+    @PostMapping("/resolve")
+    @CrossOrigin(origins = "http://localhost:3000")
+    public ResponseEntity<Map<String, Object>> resolveBarcodes(@RequestBody List<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No barcodes given"));
+        }
+        if (codes.size() > MAX_RESOLVE_CODES) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_RESOLVE_CODES + " barcodes per request"));
+        }
+
+        Map<String, BarcodeIndex.ScannedProduct> products = barcodeIndex.resolve(codes);
+        List<String> notFound = new ArrayList<>();
+        for (String code : codes) {
+            if (code != null && !code.isBlank() && !products.containsKey(code.trim()) && !notFound.contains(code.trim())) {
+                notFound.add(code.trim());
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", products);
+        response.put("notFound", notFound);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The code and its product. Answered from the index; only a code it doesn't resolve, such as one whose
+     * product was deleted, is looked up in the {@code barcode} table.
+     */
     @GetMapping("/{code}")
-    public Barcode getBarcodeByCode(@PathVariable String code) {
-        return barcodeService.getBarcodeByCode(code);
+    public ResponseEntity<Map<String, Object>> getBarcodeByCode(@PathVariable String code) {
+        Map<String, Object> response = new HashMap<>();
+        BarcodeIndex.ScannedProduct product = barcodeIndex.resolve(List.of(code)).get(code.trim());
+        if (product != null) {
+            response.put("code", code.trim());
+            response.put("product", product);
+            return ResponseEntity.ok(response);
+        }
+        Barcode barcode = barcodeService.getBarcodeByCode(code);
+        response.put("code", barcode.getCode());
+        response.put("product", barcode.getProduct());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/product/{productId}")
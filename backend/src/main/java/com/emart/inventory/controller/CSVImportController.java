@@ -2,7 +2,10 @@ package com.emart.inventory.controller;
 
 import com.emart.inventory.entity.CSVImport;
 import com.emart.inventory.entity.CSVImportItem;
+import com.emart.inventory.service.CSVImportJobService;
 import com.emart.inventory.service.CSVImportService;
+import com.emart.inventory.util.CSVHelper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,12 +30,18 @@ public class CSVImportController {
 
     private static final Logger logger = LoggerFactory.getLogger(CSVImportController.class);
 
+    private static final int MAX_ERROR_PAGE_SIZE = 500;
+
     @Autowired
     private CSVImportService csvImportService;
 
+    @Autowired
+    private CSVImportJobService csvImportJobService;
+
     @PostMapping("/upload")
     public ResponseEntity<Map<String, Object>> uploadCSV(
             @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "mode", defaultValue = "INSERT") String mode,
             @RequestHeader("role") String role,
             @RequestHeader("username") String username) {
         
@@ -46,17 +56,24 @@ public class CSVImportController {
             return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
         }
         
-        if (!file.getOriginalFilename().toLowerCase().endsWith(".csv")) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Only CSV files are allowed"));
+        if (!CSVHelper.isSupportedUpload(file.getOriginalFilename())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Only .csv, .csv.gz and .zip files are allowed"));
+        }
+        
+        CSVImport.Mode importMode;
+        try {
+            importMode = CSVImport.Mode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid import mode. Use INSERT or UPSERT"));
         }
         
         try {
-            Map<String, Object> result = csvImportService.uploadCSV(file, username);
+            Map<String, Object> result = csvImportJobService.submitUpload(file, username, importMode);
             
             if ((Boolean) result.get("success")) {
-                return ResponseEntity.ok(result);
+                return ResponseEntity.accepted().body(result);
             } else {
-                return ResponseEntity.badRequest().body(result);
+                return ResponseEntity.status(503).body(result);
             }
             
         } catch (Exception e) {
@@ -65,6 +82,21 @@ public class CSVImportController {
         }
     }
 
+    @GetMapping("/{importId}/progress")
+    public ResponseEntity<Map<String, Object>> getImportProgress(
+            @PathVariable Long importId,
+            @RequestHeader("role") String role) {
+        
+        if (!"MAKER".equals(role) && !"CHECKER".equals(role) && !"ADMIN".equals(role)) {
+            logger.warn("Forbidden: Unknown role requesting import progress. Role provided: {}", role);
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
+        }
+        
+        return csvImportJobService.getProgress(importId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/pending")
     public ResponseEntity<Map<String, Object>> getPendingImports(
             @RequestHeader("role") String role,
@@ -123,6 +155,54 @@ public class CSVImportController {
         }
     }
 
+    @GetMapping("/{importId}/errors")
+    public ResponseEntity<Map<String, Object>> getImportErrors(
+            @PathVariable Long importId,
+            @RequestHeader("role") String role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        if (!"MAKER".equals(role) && !"CHECKER".equals(role) && !"ADMIN".equals(role)) {
+            logger.warn("Forbidden: Unknown role requesting import errors. Role provided: {}", role);
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
+        }
+        
+        try {
+            Page<CSVImportItem> errors = csvImportService.getImportErrors(importId, page, Math.min(size, MAX_ERROR_PAGE_SIZE));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("errors", errors.getContent());
+            response.put("total", errors.getTotalElements());
+            response.put("totalPages", errors.getTotalPages());
+            response.put("currentPage", errors.getNumber());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Error getting import errors: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to get import errors"));
+        }
+    }
+
+    @GetMapping("/{importId}/errors/download")
+    public void downloadImportErrors(
+            @PathVariable Long importId,
+            @RequestHeader("role") String role,
+            HttpServletResponse response) throws IOException {
+        
+        if (!"MAKER".equals(role) && !"CHECKER".equals(role) && !"ADMIN".equals(role)) {
+            logger.warn("Forbidden: Unknown role downloading import errors. Role provided: {}", role);
+            response.setStatus(403);
+            return;
+        }
+        
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=import_" + importId + "_errors.csv");
+        int written = csvImportService.writeRejectedItems(importId, response.getWriter());
+        logger.info("Streamed {} rejected rows of import {}", written, importId);
+    }
+
     @PostMapping("/{importId}/approve")
     public ResponseEntity<Map<String, Object>> approveImport(
             @PathVariable Long importId,
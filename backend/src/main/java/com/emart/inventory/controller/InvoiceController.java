@@ -5,11 +5,15 @@ import com.emart.inventory.entity.InvoiceItem;
 import com.emart.inventory.entity.Product;
 import com.emart.inventory.entity.Supplier;
 import com.emart.inventory.repository.InvoiceRepository;
+import com.emart.inventory.util.SeekCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,11 +23,46 @@ public class InvoiceController {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    private static final int MAX_SEEK_PAGE_SIZE = 200;
+
+    /**
+     * All invoices, or with {@code cursor} one newest-first page of them: {@code ?cursor=} for the first page,
+     * then the {@code nextCursor} of the previous response.
+     */
     @GetMapping
-    public ResponseEntity<List<InvoiceDTO>> getAllInvoices() {
-        List<Invoice> invoices = invoiceRepository.findAll();
-        List<InvoiceDTO> dtos = invoices.stream().map(InvoiceDTO::new).collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<?> getAllInvoices(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        if (cursor == null) {
+            List<Invoice> invoices = invoiceRepository.findAll();
+            List<InvoiceDTO> dtos = invoices.stream().map(InvoiceDTO::new).collect(Collectors.toList());
+            return ResponseEntity.ok(dtos);
+        }
+
+        SeekCursor position;
+        try {
+            position = SeekCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        int limit = Math.max(1, Math.min(size, MAX_SEEK_PAGE_SIZE));
+        List<Invoice> invoices = invoiceRepository.findInvoicesAfter(
+                position.getCreatedAt(), position.getId(), PageRequest.of(0, limit + 1));
+        String nextCursor = null;
+        if (invoices.size() > limit) {
+            invoices = invoices.subList(0, limit);
+            Invoice last = invoices.get(limit - 1);
+            nextCursor = new SeekCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("invoices", invoices.stream().map(InvoiceDTO::new).collect(Collectors.toList()));
+        response.put("nextCursor", nextCursor);
+        if (withTotal) {
+            response.put("total", invoiceRepository.count());
+        }
+        return ResponseEntity.ok(response);
     }
 
     public static class InvoiceDTO {
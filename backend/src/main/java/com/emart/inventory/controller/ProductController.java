@@ -1,10 +1,16 @@
 package com.emart.inventory.controller;
 
+import com.emart.inventory.dto.ProductListView;
+import com.emart.inventory.dto.ProductPatch;
+import com.emart.inventory.entity.CSVImport;
+import com.emart.inventory.entity.CSVImportItem;
 import com.emart.inventory.entity.Product;
+import com.emart.inventory.service.CSVImportService;
+import com.emart.inventory.service.ProductBulkUpdateService;
 import com.emart.inventory.service.ProductService;
-import com.opencsv.CSVWriter;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
+import com.emart.inventory.service.ProductSuggestIndex;
+import com.emart.inventory.util.CSVHelper;
+import com.emart.inventory.util.SeekCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,10 +27,13 @@ import org.springframework.web.multipart.MultipartFile;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import com.emart.inventory.repository.InventoryRepository;
 import com.emart.inventory.entity.Inventory;
@@ -36,34 +45,59 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    // Rejected rows listed in an import response; the rest are in the error CSV
+    private static final int IMPORT_ERROR_PREVIEW_SIZE = 100;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final int MAX_SEEK_PAGE_SIZE = 200;
+
+    private static final int MAX_BULK_UPDATE_ROWS = 10_000;
+
     @Autowired
     private ProductService productService;
 
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private CSVImportService csvImportService;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllProducts(
             @RequestHeader("role") String role,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) Long categoryId) {
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        if (cursor != null) {
+            boolean filtered = search != null && !search.trim().isEmpty() || categoryId != null;
+            return getProductsAfter(role, cursor, size, withTotal, filtered);
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Product> productPage;
+        Page<ProductListView> productPage;
 
         if ("ADMIN".equalsIgnoreCase(role)) {
             // ADMIN can see all products (approved, pending, rejected)
             if (search != null && !search.trim().isEmpty() || categoryId != null) {
-                productPage = productService.searchProductsAll(search, categoryId, pageable);
+                productPage = productService.searchProductList(search, categoryId, pageable);
             } else {
-                productPage = productService.getAllProducts(pageable);
+                productPage = productService.getProductList(pageable);
             }
         } else if ("CHECKER".equalsIgnoreCase(role)) {
-            productPage = productService.findByStatus(Product.Status.PENDING, pageable);
+            productPage = productService.getProductListByStatus(Product.Status.PENDING, pageable);
         } else if ("MAKER".equalsIgnoreCase(role)) {
-            productPage = productService.findByStatus(Product.Status.PENDING, pageable);
+            productPage = productService.getProductListByStatus(Product.Status.PENDING, pageable);
         } else {
             return ResponseEntity.status(403).body(Map.of("error", "Invalid role"));
         }
@@ -81,6 +115,60 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Seek mode of the product list: {@code ?cursor=} for the first page, then the {@code nextCursor} of the
+     * previous response. Pages cost the same however deep they are, and the count only runs when asked for.
+     */
+    private ResponseEntity<Map<String, Object>> getProductsAfter(String role, String cursor, int size,
+                                                                  boolean withTotal, boolean filtered) {
+        boolean admin = "ADMIN".equalsIgnoreCase(role);
+        if (!admin && !"CHECKER".equalsIgnoreCase(role) && !"MAKER".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Invalid role"));
+        }
+        if (filtered) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Search and categoryId are not supported with cursor, use page"));
+        }
+        SeekCursor position;
+        try {
+            position = SeekCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        int limit = Math.max(1, Math.min(size, MAX_SEEK_PAGE_SIZE));
+        // One row more than the page tells whether there is a next one
+        List<ProductListView> products = admin
+                ? productService.getProductListAfter(position, limit + 1)
+                : productService.getProductListByStatusAfter(Product.Status.PENDING, position, limit + 1);
+        String nextCursor = null;
+        if (products.size() > limit) {
+            products = products.subList(0, limit);
+            ProductListView last = products.get(limit - 1);
+            nextCursor = new SeekCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", products.stream().map(ProductDTO::new).collect(Collectors.toList()));
+        response.put("nextCursor", nextCursor);
+        if (withTotal) {
+            response.put("total", admin
+                    ? productService.getTotalProductsCount()
+                    : productService.countByStatus(Product.Status.PENDING));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Typeahead for the POS and back office, ranked by units sold; no count query, unlike the paged list
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggestProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSuggestIndex.Suggestion> suggestions = query.trim().isEmpty()
+                ? List.of()
+                : productSuggestIndex.suggest(query.trim(), Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+        return ResponseEntity.ok(Map.of("suggestions", suggestions));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         return productService.getProductById(id)
@@ -163,6 +251,27 @@ public class ProductController {
         }
     }
 
+    /**
+     * Partial updates for many products in one call, each row naming its product by {@code id} or
+     * {@code sku}, e.g. {@code [{"sku": "SKU1", "mrp": 149.00}, {"id": 42, "purchasePrice": 99.50}]}.
+     * The response has an outcome per row; rows that fail don't stop the others.
+     */
+    @PatchMapping("/batch")
+    public ResponseEntity<Map<String, Object>> updateProducts(@RequestBody List<ProductPatch> patches,
+                                                              @RequestHeader("role") String role) {
+        if (!"MAKER".equalsIgnoreCase(role) && !"ADMIN".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only MAKER and ADMIN can update products"));
+        }
+        if (patches == null || patches.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No updates given"));
+        }
+        if (patches.size() > MAX_BULK_UPDATE_ROWS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BULK_UPDATE_ROWS + " updates per request"));
+        }
+        logger.info("Bulk update of {} products by role {}", patches.size(), role);
+        return ResponseEntity.ok(productBulkUpdateService.updateProducts(patches));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         try {
@@ -173,77 +282,65 @@ public class ProductController {
         }
     }
 
+    /**
+     * Imports products through the same streaming, batched staging as {@code /api/csv-import/upload},
+     * so the rows wait for checker approval. Staging runs on the request thread and the response
+     * lists the rejected rows.
+     */
     @PostMapping("/import")
-    public ResponseEntity<Map<String, Object>> importProducts(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> importProducts(
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader(value = "username", required = false) String username) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
         }
+        if (!CSVHelper.isSupportedUpload(file.getOriginalFilename())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Only .csv, .csv.gz and .zip files are allowed"));
+        }
 
-        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            CsvToBean<Product> csvToBean = new CsvToBeanBuilder<Product>(reader)
-                    .withType(Product.class)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .build();
-
-            List<Product> products = csvToBean.parse();
-            int imported = 0;
-            
-            for (Product product : products) {
-                try {
-                    // Set missing fields if needed (e.g., status)
-                    if (product.getStatus() == null) {
-                        product.setStatus(Product.Status.PENDING);
-                    }
-                    // Ensure manufacturerCode, expiryDate, manufacturerDate are set if present in CSV
-                    // No action needed if already mapped by CSV
-                    productService.createProduct(product);
-                    imported++;
-                } catch (Exception e) {
-                    // Log error but continue processing
-                }
-            }
+        Map<String, Object> response = csvImportService.uploadCSV(
+                file, username != null ? username : "api", CSVImport.Mode.INSERT);
+        if (!Boolean.TRUE.equals(response.get("success"))) {
+            return ResponseEntity.badRequest().body(response);
+        }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Import completed");
-            response.put("imported", imported);
-            response.put("total", products.size());
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Failed to import products: " + e.getMessage()));
+        Long importId = (Long) response.get("importId");
+        Page<CSVImportItem> rejected = csvImportService.getImportErrors(importId, 0, IMPORT_ERROR_PREVIEW_SIZE);
+        List<Map<String, Object>> errors = new ArrayList<>();
+        for (CSVImportItem item : rejected.getContent()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("rowNumber", item.getRowNumber());
+            error.put("sku", item.getSku());
+            error.put("error", item.getErrorMessage());
+            errors.add(error);
         }
+        response.put("errors", errors);
+        // Kept for existing clients of this endpoint
+        response.put("imported", response.get("validRecords"));
+        response.put("total", response.get("totalRecords"));
+        if (rejected.getTotalElements() > errors.size()) {
+            response.put("moreErrors", "/api/csv-import/" + importId + "/errors/download");
+        }
+        return ResponseEntity.ok(response);
     }
 
+    /**
+     * CSV of all active products, streamed from a database cursor, so it starts right away and a large catalog
+     * is never held in memory. {@code gzip=true} compresses it.
+     */
     @GetMapping("/export")
-    public void exportProducts(HttpServletResponse response) throws IOException {
-        response.setContentType("text/csv");
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.csv");
-
-        List<Product> products = productService.getAllProducts();
-        
-        try (CSVWriter writer = new CSVWriter(response.getWriter())) {
-            // Write header
-            String[] header = {"ID", "Name", "SKU", "Description", "Unit", "Purchase Price", "MRP", "Min Stock", "Max Stock", "Expiry Date", "Manufacturer Date", "Manufacturer Code"};
-            writer.writeNext(header);
-
-            // Write data
-            for (Product product : products) {
-                String[] data = {
-                    product.getId() != null ? product.getId().toString() : "",
-                    product.getName(),
-                    product.getSku(),
-                    product.getDescription(),
-                    product.getUnit(),
-                    product.getPurchasePrice() != null ? product.getPurchasePrice().toString() : "",
-                    product.getMrp() != null ? product.getMrp().toString() : "",
-                    product.getMinStockLevel() != null ? product.getMinStockLevel().toString() : "",
-                    product.getMaxStockLevel() != null ? product.getMaxStockLevel().toString() : "",
-                    product.getExpiryDate() != null ? product.getExpiryDate().toString() : "",
-                    product.getManufacturerDate() != null ? product.getManufacturerDate().toString() : "",
-                    product.getManufacturerCode() != null ? product.getManufacturerCode() : ""
-                };
-                writer.writeNext(data);
-            }
+    public void exportProducts(@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response) throws IOException {
+        response.setContentType(gzip ? "application/gzip" : "text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.csv" + (gzip ? ".gz" : ""));
+
+        // Sync flush, so each flush of the writer sends the rows compressed so far
+        OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024, true)
+                : response.getOutputStream();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            int written = productService.writeProductExport(writer);
+            logger.info("Exported {} products", written);
         }
     }
 
@@ -278,7 +375,7 @@ public class ProductController {
     }
 
     // DTO for safe serialization
-    static class ProductDTO {
+    public static class ProductDTO {
         public Long id;
         public String name;
         public String sku;
@@ -315,5 +412,24 @@ public class ProductController {
             
             this.stock = p.getQuantity();
         }
+
+        public ProductDTO(ProductListView view) {
+            this.id = view.getId();
+            this.name = view.getName();
+            this.sku = view.getSku();
+            this.description = view.getDescription();
+            this.unit = view.getUnit();
+            this.purchasePrice = view.getPurchasePrice();
+            this.mrp = view.getMrp();
+            this.minStockLevel = view.getMinStockLevel();
+            this.maxStockLevel = view.getMaxStockLevel();
+            this.status = view.getStatus() != null ? view.getStatus().name() : null;
+            this.categoryName = view.getCategoryName();
+            this.supplierName = view.getSupplierName();
+            this.expiryDate = view.getExpiryDate() != null ? view.getExpiryDate().toString() : null;
+            this.manufacturerDate = view.getManufacturerDate() != null ? view.getManufacturerDate().toString() : null;
+            this.manufacturerCode = view.getManufacturerCode();
+            this.stock = view.getQuantity();
+        }
     }
 }
\ No newline at end of file
@@ -1,44 +1,102 @@
 package com.emart.inventory.controller;
 
-import com.emart.inventory.entity.Product;
-import com.emart.inventory.repository.ProductRepository;
+import com.emart.inventory.service.ProductMinPayloadCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/products-min")
 @CrossOrigin(origins = "http://localhost:3000")
 public class ProductListController {
     @Autowired
-    private ProductRepository productRepository;
+    private ProductMinPayloadCache productMinPayloadCache;
 
+    /**
+     * Every active product, in the shape described on {@link ProductMinPayloadCache}, served from bytes
+     * serialized once per catalog version. A client that sends back the ETag gets 304 until a product changes.
+     */
     @GetMapping
-    public ResponseEntity<List<ProductMinDTO>> getProductsMin() {
-        List<ProductMinDTO> products = productRepository.findByIsActiveTrue().stream()
-            .map(p -> new ProductMinDTO(p.getId(), p.getName(), p.getExpiryDate(), p.getManufacturerDate(), p.getManufacturerCode()))
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getProductsMin(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductMinPayloadCache.Payload payload = productMinPayloadCache.current();
+        if (matches(ifNoneMatch, payload.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(payload.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(payload.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzipJson());
+        }
+        return response.body(payload.getJson());
     }
 
-    public static class ProductMinDTO {
-        public Long id;
-        public String name;
-        public java.time.LocalDateTime expiryDate;
-        public java.time.LocalDateTime manufacturerDate;
-        public String manufacturerCode;
-        public ProductMinDTO(Long id, String name, java.time.LocalDateTime expiryDate, java.time.LocalDateTime manufacturerDate, String manufacturerCode) {
-            this.id = id;
-            this.name = name;
-            this.expiryDate = expiryDate;
-            this.manufacturerDate = manufacturerDate;
-            this.manufacturerCode = manufacturerCode;
+    // gzip listed with a non-zero q-value, or * when gzip isn't listed at all; gzip;q=0 refuses it
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // If-None-Match may list several tags, weak or strong, or be *
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque)) {
+                return true;
+            }
         }
+        return false;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.emart.inventory.dto;
+
+/**
+ * A barcode and the id of the product it identifies, from any of the places barcodes are stored.
+ */
+public interface BarcodeMapping {
+    String getCode();
+    Long getProductId();
+}
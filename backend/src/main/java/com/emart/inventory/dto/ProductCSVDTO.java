@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class ProductCSVDTO {
+    private int rowNumber;
     private String name;
     private String description;
     private String sku;
@@ -23,8 +24,26 @@ public class ProductCSVDTO {
     private String supplierEmail;
     private String supplierPhone;
     private String supplierAddress;
+    // First field of the row that could not be parsed, if any
+    private String parseError;
 
     // Getters and Setters
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public void setRowNumber(int rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    public String getParseError() {
+        return parseError;
+    }
+
+    public void setParseError(String parseError) {
+        this.parseError = parseError;
+    }
+
     public String getName() {
         return name;
     }
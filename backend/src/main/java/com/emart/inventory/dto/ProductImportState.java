@@ -0,0 +1,11 @@
+package com.emart.inventory.dto;
+
+/**
+ * What an upsert import needs to know about an existing product: its id and the hash of the CSV
+ * row it was last imported from.
+ */
+public interface ProductImportState {
+    Long getId();
+    String getSku();
+    String getImportHash();
+}
@@ -0,0 +1,73 @@
+package com.emart.inventory.dto;
+
+import com.emart.inventory.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A product as the product list shows it, selected column by column together with its category and
+ * supplier name in one joined query. No entity is loaded, so the eager inventory and lazy category and
+ * supplier associations never fire their own selects.
+ */
+public class ProductListView {
+    private final Long id;
+    private final String name;
+    private final String sku;
+    private final String description;
+    private final String unit;
+    private final BigDecimal purchasePrice;
+    private final BigDecimal mrp;
+    private final Integer minStockLevel;
+    private final Integer maxStockLevel;
+    private final Product.Status status;
+    private final String categoryName;
+    private final String supplierName;
+    private final LocalDateTime expiryDate;
+    private final LocalDateTime manufacturerDate;
+    private final String manufacturerCode;
+    private final Integer quantity;
+    private final LocalDateTime createdAt;
+
+    public ProductListView(Long id, String name, String sku, String description, String unit,
+                           BigDecimal purchasePrice, BigDecimal mrp, Integer minStockLevel, Integer maxStockLevel,
+                           Product.Status status, String categoryName, String supplierName,
+                           LocalDateTime expiryDate, LocalDateTime manufacturerDate, String manufacturerCode,
+                           Integer quantity, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.sku = sku;
+        this.description = description;
+        this.unit = unit;
+        this.purchasePrice = purchasePrice;
+        this.mrp = mrp;
+        this.minStockLevel = minStockLevel;
+        this.maxStockLevel = maxStockLevel;
+        this.status = status;
+        this.categoryName = categoryName;
+        this.supplierName = supplierName;
+        this.expiryDate = expiryDate;
+        this.manufacturerDate = manufacturerDate;
+        this.manufacturerCode = manufacturerCode;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getSku() { return sku; }
+    public String getDescription() { return description; }
+    public String getUnit() { return unit; }
+    public BigDecimal getPurchasePrice() { return purchasePrice; }
+    public BigDecimal getMrp() { return mrp; }
+    public Integer getMinStockLevel() { return minStockLevel; }
+    public Integer getMaxStockLevel() { return maxStockLevel; }
+    public Product.Status getStatus() { return status; }
+    public String getCategoryName() { return categoryName; }
+    public String getSupplierName() { return supplierName; }
+    public LocalDateTime getExpiryDate() { return expiryDate; }
+    public LocalDateTime getManufacturerDate() { return manufacturerDate; }
+    public String getManufacturerCode() { return manufacturerCode; }
+    public Integer getQuantity() { return quantity; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,50 @@
+package com.emart.inventory.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a bulk product update: the product, by id or SKU, and the fields to change. Fields left
+ * null keep their current value. Dates are {@code yyyy-MM-dd}, as when creating a product.
+ */
+public class ProductPatch {
+    private Long id;
+    private String sku;
+    private String name;
+    private String description;
+    private String unit;
+    private BigDecimal purchasePrice;
+    private BigDecimal mrp;
+    private Integer minStockLevel;
+    private Integer maxStockLevel;
+    private String expiryDate;
+    private String manufacturerDate;
+    private String manufacturerCode;
+    private String batchNumber;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public String getUnit() { return unit; }
+    public void setUnit(String unit) { this.unit = unit; }
+    public BigDecimal getPurchasePrice() { return purchasePrice; }
+    public void setPurchasePrice(BigDecimal purchasePrice) { this.purchasePrice = purchasePrice; }
+    public BigDecimal getMrp() { return mrp; }
+    public void setMrp(BigDecimal mrp) { this.mrp = mrp; }
+    public Integer getMinStockLevel() { return minStockLevel; }
+    public void setMinStockLevel(Integer minStockLevel) { this.minStockLevel = minStockLevel; }
+    public Integer getMaxStockLevel() { return maxStockLevel; }
+    public void setMaxStockLevel(Integer maxStockLevel) { this.maxStockLevel = maxStockLevel; }
+    public String getExpiryDate() { return expiryDate; }
+    public void setExpiryDate(String expiryDate) { this.expiryDate = expiryDate; }
+    public String getManufacturerDate() { return manufacturerDate; }
+    public void setManufacturerDate(String manufacturerDate) { this.manufacturerDate = manufacturerDate; }
+    public String getManufacturerCode() { return manufacturerCode; }
+    public void setManufacturerCode(String manufacturerCode) { this.manufacturerCode = manufacturerCode; }
+    public String getBatchNumber() { return batchNumber; }
+    public void setBatchNumber(String batchNumber) { this.batchNumber = batchNumber; }
+}
@@ -0,0 +1,9 @@
+package com.emart.inventory.dto;
+
+/**
+ * Units of a product sold over all invoices, used to rank product suggestions.
+ */
+public interface ProductSalesVolume {
+    Long getProductId();
+    Long getQuantity();
+}
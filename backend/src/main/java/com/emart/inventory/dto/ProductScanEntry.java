@@ -0,0 +1,16 @@
+package com.emart.inventory.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns of a product a barcode scan returns, loaded without the rest of the entity.
+ */
+public interface ProductScanEntry {
+    Long getId();
+    String getName();
+    String getSku();
+    String getBarcode();
+    BigDecimal getMrp();
+    String getUnit();
+    Boolean getIsActive();
+}
@@ -0,0 +1,16 @@
+package com.emart.inventory.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a product the in-memory search index keeps, loaded without the rest of the entity.
+ */
+public interface ProductSearchEntry {
+    Long getId();
+    String getName();
+    String getSku();
+    String getBarcode();
+    Long getCategoryId();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+}
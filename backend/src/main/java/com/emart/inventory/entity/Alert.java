@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class Alert {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alerts_seq")
+    @SequenceGenerator(name = "alerts_seq", sequenceName = "alerts_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "barcodes_new")
 public class BarcodeNew {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "barcodes_new_seq")
+    @SequenceGenerator(name = "barcodes_new_seq", sequenceName = "barcodes_new_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
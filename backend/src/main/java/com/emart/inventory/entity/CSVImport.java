@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,7 +14,8 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class CSVImport {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "csv_imports_seq")
+    @SequenceGenerator(name = "csv_imports_seq", sequenceName = "csv_imports_seq", allocationSize = 50)
     private Long id;
 
     private String fileName;
@@ -21,12 +23,26 @@ public class CSVImport {
     private Integer totalRecords;
     private Integer validRecords;
     private Integer invalidRecords;
+    private Integer processedRecords;
+    // Upsert rows that matched the catalog exactly and were not staged
+    private Integer unchangedRecords;
+
+    // Id of the last import item committed by approval; an interrupted approval resumes after it
+    private Long approvalCheckpoint;
+
+    // Node staging or approving the import, and when it last committed a chunk; other nodes only take the
+    // import over, or fail it at startup, once the heartbeat is older than csv.import.heartbeat-timeout
+    private String owner;
+    private LocalDateTime heartbeatAt;
 
     @Enumerated(EnumType.STRING)
     private Status status = Status.PENDING;
 
-    @Lob
-    @Column(columnDefinition = "TEXT")
+    @Enumerated(EnumType.STRING)
+    private Mode mode = Mode.INSERT;
+
+    // Short summary only; the error of each row is kept on its CSVImportItem
+    @Column(length = 1000)
     private String errorDetails;
 
     @CreatedDate
@@ -36,10 +52,16 @@ public class CSVImport {
     private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "csvImport", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<CSVImportItem> importItems;
 
     public enum Status {
-        PENDING, APPROVED, REJECTED
+        PROCESSING, PENDING, APPROVING, APPROVED, REJECTED, FAILED
+    }
+
+    // INSERT rejects rows whose SKU exists; UPSERT updates those products when the row changed
+    public enum Mode {
+        INSERT, UPSERT
     }
 
     // Constructors
@@ -64,9 +86,27 @@ public class CSVImport {
     public Integer getInvalidRecords() { return invalidRecords; }
     public void setInvalidRecords(Integer invalidRecords) { this.invalidRecords = invalidRecords; }
 
+    public Integer getProcessedRecords() { return processedRecords; }
+    public void setProcessedRecords(Integer processedRecords) { this.processedRecords = processedRecords; }
+
+    public Integer getUnchangedRecords() { return unchangedRecords; }
+    public void setUnchangedRecords(Integer unchangedRecords) { this.unchangedRecords = unchangedRecords; }
+
+    public Long getApprovalCheckpoint() { return approvalCheckpoint; }
+    public void setApprovalCheckpoint(Long approvalCheckpoint) { this.approvalCheckpoint = approvalCheckpoint; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
     public Status getStatus() { return status; }
     public void setStatus(Status status) { this.status = status; }
 
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
     public String getErrorDetails() { return errorDetails; }
     public void setErrorDetails(String errorDetails) { this.errorDetails = errorDetails; }
 
@@ -9,11 +9,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "csv_import_items")
+@Table(name = "csv_import_items", indexes = {
+    @Index(name = "idx_csv_import_items_import_status", columnList = "csv_import_id, status")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class CSVImportItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "csv_import_items_seq")
+    @SequenceGenerator(name = "csv_import_items_seq", sequenceName = "csv_import_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -46,6 +49,19 @@ public class CSVImportItem {
 
     private String errorMessage;
 
+    // Line of the row in the uploaded file, header included
+    private Integer rowNumber;
+
+    @Enumerated(EnumType.STRING)
+    private Action action = Action.CREATE;
+
+    // Product an UPDATE item applies to
+    private Long productId;
+
+    // Hash of the row's catalog fields, stored on the product once the item is approved
+    @Column(length = 64)
+    private String contentHash;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -53,6 +69,10 @@ public class CSVImportItem {
         PENDING, APPROVED, REJECTED, PROCESSED
     }
 
+    public enum Action {
+        CREATE, UPDATE
+    }
+
     // Constructors
     public CSVImportItem() {}
 
@@ -117,6 +137,18 @@ public class CSVImportItem {
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 
+    public Integer getRowNumber() { return rowNumber; }
+    public void setRowNumber(Integer rowNumber) { this.rowNumber = rowNumber; }
+
+    public Action getAction() { return action; }
+    public void setAction(Action action) { this.action = action; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -16,7 +16,8 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
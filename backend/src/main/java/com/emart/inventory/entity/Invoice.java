@@ -14,11 +14,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    @Index(name = "idx_invoices_created_at_id", columnList = "created_at, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Invoice {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoices_seq")
+    @SequenceGenerator(name = "invoices_seq", sequenceName = "invoices_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -8,7 +8,8 @@ import java.util.List;
 @Table(name = "outlets")
 public class Outlet {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outlets_seq")
+    @SequenceGenerator(name = "outlets_seq", sequenceName = "outlets_seq", allocationSize = 50)
     private Long id;
 
     private String name;
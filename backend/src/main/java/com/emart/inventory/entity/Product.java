@@ -14,11 +14,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_created_at_id", columnList = "created_at, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -96,6 +99,11 @@ public class Product {
     private String manufacturerCode; // 5 digits
     private Integer quantity = 0; // Direct stock tracking
 
+    // Content hash of the CSV row last imported for this product; upsert imports skip rows that match it
+    @JsonIgnore
+    @Column(length = 64)
+    private String importHash;
+
     // Constructors
     public Product() {}
 
@@ -171,4 +179,7 @@ public class Product {
 
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public String getImportHash() { return importHash; }
+    public void setImportHash(String importHash) { this.importHash = importHash; }
 }
\ No newline at end of file
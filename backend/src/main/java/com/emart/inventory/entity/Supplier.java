@@ -17,7 +17,8 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class Supplier {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "suppliers_seq")
+    @SequenceGenerator(name = "suppliers_seq", sequenceName = "suppliers_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -1,14 +1,25 @@
 package com.emart.inventory.repository;
 
+import com.emart.inventory.dto.BarcodeMapping;
 import com.emart.inventory.entity.BarcodeNew;
 import com.emart.inventory.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BarcodeNewRepository extends JpaRepository<BarcodeNew, Long> {
     Optional<BarcodeNew> findByProduct(Product product);
     Optional<BarcodeNew> findByCode(String code);
-} 
\ No newline at end of file
+
+    @Query("SELECT b.code AS code, b.product.id AS productId FROM BarcodeNew b")
+    List<BarcodeMapping> findAllMappings();
+
+    @Query("SELECT b.code AS code, b.product.id AS productId FROM BarcodeNew b WHERE b.code IN :codes")
+    List<BarcodeMapping> findMappingsByCodeIn(@Param("codes") Collection<String> codes);
+}
@@ -1,9 +1,15 @@
 package com.emart.inventory.repository;
 
+import com.emart.inventory.dto.BarcodeMapping;
 import com.emart.inventory.entity.Barcode;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface BarcodeRepository extends JpaRepository<Barcode, String> {
 
@@ -15,4 +21,10 @@ public interface BarcodeRepository extends JpaRepository<Barcode, String> {
 
     // Optional: find barcode by code
     Barcode findByCode(String code);
+
+    @Query("SELECT b.code AS code, b.product.id AS productId FROM Barcode b WHERE b.product IS NOT NULL")
+    List<BarcodeMapping> findAllMappings();
+
+    @Query("SELECT b.code AS code, b.product.id AS productId FROM Barcode b WHERE b.code IN :codes AND b.product IS NOT NULL")
+    List<BarcodeMapping> findMappingsByCodeIn(@Param("codes") Collection<String> codes);
 }
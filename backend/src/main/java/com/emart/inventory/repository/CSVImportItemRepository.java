@@ -1,7 +1,10 @@
 package com.emart.inventory.repository;
 
 import com.emart.inventory.entity.CSVImportItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +17,53 @@ public interface CSVImportItemRepository extends JpaRepository<CSVImportItem, Lo
     
     List<CSVImportItem> findByCsvImportIdAndStatusOrderByCreatedAtAsc(Long csvImportId, CSVImportItem.Status status);
     
+    Page<CSVImportItem> findByCsvImportIdAndStatus(Long csvImportId, CSVImportItem.Status status, Pageable pageable);
+    
+    // Keyset page of items after the given id, for walking an import without OFFSET scans
+    @Query("SELECT i FROM CSVImportItem i WHERE i.csvImport.id = ?1 AND i.status = ?2 AND i.id > ?3 ORDER BY i.id ASC")
+    List<CSVImportItem> findItemsAfter(Long csvImportId, CSVImportItem.Status status, Long afterId, Pageable pageable);
+    
     @Query("SELECT COUNT(i) FROM CSVImportItem i WHERE i.csvImport.id = ?1 AND i.status = ?2")
     Long countByCsvImportIdAndStatus(Long csvImportId, CSVImportItem.Status status);
+    
+    @Query("SELECT i.id FROM CSVImportItem i WHERE i.csvImport.id = ?1 AND i.status = ?2 AND i.id > ?3 ORDER BY i.id ASC")
+    List<Long> findIdsForApproval(Long csvImportId, CSVImportItem.Status status, Long afterId, Pageable pageable);
+    
+    @Query("SELECT DISTINCT i.categoryName FROM CSVImportItem i WHERE i.csvImport.id = ?1 AND i.status = ?2")
+    List<String> findDistinctCategoryNames(Long csvImportId, CSVImportItem.Status status);
+    
+    @Query("SELECT DISTINCT i.supplierName FROM CSVImportItem i WHERE i.csvImport.id = ?1 AND i.status = ?2")
+    List<String> findDistinctSupplierNames(Long csvImportId, CSVImportItem.Status status);
+    
+    // Last non-empty supplier contact value per supplier name, in file order: [supplierName, value]
+    @Query("SELECT i.supplierName, i.supplierEmail FROM CSVImportItem i WHERE i.id IN (" +
+           "SELECT MAX(j.id) FROM CSVImportItem j WHERE j.csvImport.id = ?1 AND j.status = ?2 " +
+           "AND j.supplierEmail IS NOT NULL AND j.supplierEmail <> '' GROUP BY j.supplierName)")
+    List<Object[]> findLatestSupplierEmails(Long csvImportId, CSVImportItem.Status status);
+    
+    @Query("SELECT i.supplierName, i.supplierPhone FROM CSVImportItem i WHERE i.id IN (" +
+           "SELECT MAX(j.id) FROM CSVImportItem j WHERE j.csvImport.id = ?1 AND j.status = ?2 " +
+           "AND j.supplierPhone IS NOT NULL AND j.supplierPhone <> '' GROUP BY j.supplierName)")
+    List<Object[]> findLatestSupplierPhones(Long csvImportId, CSVImportItem.Status status);
+    
+    @Query("SELECT i.supplierName, i.supplierAddress FROM CSVImportItem i WHERE i.id IN (" +
+           "SELECT MAX(j.id) FROM CSVImportItem j WHERE j.csvImport.id = ?1 AND j.status = ?2 " +
+           "AND j.supplierAddress IS NOT NULL AND j.supplierAddress <> '' GROUP BY j.supplierName)")
+    List<Object[]> findLatestSupplierAddresses(Long csvImportId, CSVImportItem.Status status);
+    
+    @Query("SELECT MIN(i.id) FROM CSVImportItem i WHERE i.csvImport.id = ?1 AND i.status = ?2")
+    Long findMinIdByCsvImportIdAndStatus(Long csvImportId, CSVImportItem.Status status);
+    
+    @Query("SELECT MAX(i.id) FROM CSVImportItem i WHERE i.csvImport.id = ?1 AND i.status = ?2")
+    Long findMaxIdByCsvImportIdAndStatus(Long csvImportId, CSVImportItem.Status status);
+    
+    @Modifying
+    @Query("UPDATE CSVImportItem i SET i.status = ?3, i.errorMessage = ?4 " +
+           "WHERE i.csvImport.id = ?1 AND i.status = ?2 AND i.id BETWEEN ?5 AND ?6")
+    int updateStatusInIdRange(Long csvImportId, CSVImportItem.Status fromStatus, CSVImportItem.Status toStatus,
+                              String errorMessage, Long fromId, Long toId);
+    
+    @Modifying
+    @Query("DELETE FROM CSVImportItem i WHERE i.csvImport.id = ?1")
+    int deleteByCsvImportId(Long csvImportId);
 } 
\ No newline at end of file
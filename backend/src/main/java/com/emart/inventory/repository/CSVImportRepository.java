@@ -4,9 +4,12 @@ import com.emart.inventory.entity.CSVImport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,9 +19,41 @@ public interface CSVImportRepository extends JpaRepository<CSVImport, Long> {
     
     Page<CSVImport> findByStatusOrderByCreatedAtDesc(CSVImport.Status status, Pageable pageable);
     
+    Page<CSVImport> findByStatusInOrderByCreatedAtDesc(Collection<CSVImport.Status> statuses, Pageable pageable);
+    
     @Query("SELECT c FROM CSVImport c WHERE c.uploadedBy = ?1 ORDER BY c.createdAt DESC")
     List<CSVImport> findByUploadedByOrderByCreatedAtDesc(String uploadedBy);
     
     @Query("SELECT c FROM CSVImport c WHERE c.uploadedBy = ?1 AND c.status = ?2 ORDER BY c.createdAt DESC")
     List<CSVImport> findByUploadedByAndStatusOrderByCreatedAtDesc(String uploadedBy, CSVImport.Status status);
+    
+    // Imports in a status that no running node is working on: owned by the caller, or gone quiet
+    @Query("SELECT c FROM CSVImport c WHERE c.status = ?1 " +
+           "AND (c.owner IS NULL OR c.owner = ?2 OR c.heartbeatAt IS NULL OR c.heartbeatAt < ?3)")
+    List<CSVImport> findOrphaned(CSVImport.Status status, String owner, LocalDateTime staleBefore);
+    
+    @Modifying
+    @Query("UPDATE CSVImport c SET c.heartbeatAt = ?2 WHERE c.id = ?1")
+    int heartbeat(Long id, LocalDateTime now);
+    
+    // Status changes that several nodes may race for; the caller goes ahead only if one row was updated
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CSVImport c SET c.status = ?3, c.owner = ?4, c.heartbeatAt = ?5, c.processedRecords = 0, " +
+           "c.approvalCheckpoint = 0 WHERE c.id = ?1 AND c.status = ?2")
+    int startApproval(Long id, CSVImport.Status fromStatus, CSVImport.Status toStatus, String owner, LocalDateTime now);
+    
+    // Takes over an approval whose owner is this node, or one that stopped sending heartbeats
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CSVImport c SET c.owner = ?3, c.heartbeatAt = ?4 WHERE c.id = ?1 AND c.status = ?2 " +
+           "AND (c.owner IS NULL OR c.owner = ?3 OR c.heartbeatAt IS NULL OR c.heartbeatAt < ?5)")
+    int takeOver(Long id, CSVImport.Status status, String owner, LocalDateTime now, LocalDateTime staleBefore);
+    
+    // Lets any node resume a failed approval right away instead of after the heartbeat timeout
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CSVImport c SET c.heartbeatAt = NULL WHERE c.id = ?1 AND c.owner = ?2")
+    int release(Long id, String owner);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CSVImport c SET c.status = ?3, c.errorDetails = ?4 WHERE c.id = ?1 AND c.status = ?2")
+    int updateStatus(Long id, CSVImport.Status fromStatus, CSVImport.Status toStatus, String errorDetails);
 } 
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.emart.inventory.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +12,5 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findAllByOrderByNameAsc();
     Optional<Category> findByName(String name);
+    List<Category> findByNameIn(Collection<String> names);
 }
\ No newline at end of file
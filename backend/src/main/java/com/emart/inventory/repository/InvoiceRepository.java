@@ -1,10 +1,24 @@
 package com.emart.inventory.repository;
 
+import com.emart.inventory.dto.ProductSalesVolume;
 import com.emart.inventory.entity.Invoice;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
-    // Additional query methods if needed
-} 
\ No newline at end of file
+
+    @Query("SELECT i.product.id AS productId, SUM(i.quantity) AS quantity FROM InvoiceItem i GROUP BY i.product.id")
+    List<ProductSalesVolume> findProductSalesVolumes();
+
+    // Seek page of invoices after (createdAt, id), newest first
+    @Query("SELECT i FROM Invoice i WHERE i.createdAt < :createdAt OR (i.createdAt = :createdAt AND i.id < :id) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Invoice> findInvoicesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+}
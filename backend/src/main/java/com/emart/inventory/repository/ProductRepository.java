@@ -1,21 +1,75 @@
 package com.emart.inventory.repository;
 
+import com.emart.inventory.config.CacheConfig;
+import com.emart.inventory.dto.BarcodeMapping;
+import com.emart.inventory.dto.ProductImportState;
+import com.emart.inventory.dto.ProductListView;
+import com.emart.inventory.dto.ProductScanEntry;
+import com.emart.inventory.dto.ProductSearchEntry;
 import com.emart.inventory.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Optional<Product> findBySku(String sku);
+
+    // The sku column is case-insensitive, so one product can be cached under several keys; writes clear it all
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_BY_SKU, sync = true)
+    @Query("SELECT p.id FROM Product p WHERE p.sku = :sku AND p.isActive = true")
+    Optional<Long> findActiveIdBySku(@Param("sku") String sku);
+    
+    @Query("SELECT p.sku FROM Product p WHERE p.isActive = true AND p.sku IN :skus")
+    List<String> findActiveSkusIn(@Param("skus") Collection<String> skus);
     
+    @Query("SELECT p.id AS id, p.sku AS sku, p.importHash AS importHash FROM Product p " +
+           "WHERE p.isActive = true AND p.sku IN :skus")
+    List<ProductImportState> findImportStatesBySkuIn(@Param("skus") Collection<String> skus);
+
+    // Keyset page of search index entries after the given id, inactive products included
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku, p.barcode AS barcode, c.id AS categoryId, " +
+           "p.isActive AS isActive, p.createdAt AS createdAt FROM Product p LEFT JOIN p.category c " +
+           "WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<ProductSearchEntry> findSearchEntriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku, p.barcode AS barcode, c.id AS categoryId, " +
+           "p.isActive AS isActive, p.createdAt AS createdAt FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<ProductSearchEntry> findSearchEntriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku, p.barcode AS barcode, c.id AS categoryId, " +
+           "p.isActive AS isActive, p.createdAt AS createdAt FROM Product p JOIN p.category c WHERE c.id = :categoryId")
+    List<ProductSearchEntry> findSearchEntriesByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND p.id IN :ids")
+    List<Long> findActiveIdsIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset page of barcode scan entries after the given id, inactive products included
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku, p.barcode AS barcode, p.mrp AS mrp, p.unit AS unit, " +
+           "p.isActive AS isActive FROM Product p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<ProductScanEntry> findScanEntriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku, p.barcode AS barcode, p.mrp AS mrp, p.unit AS unit, " +
+           "p.isActive AS isActive FROM Product p WHERE p.id IN :ids")
+    List<ProductScanEntry> findScanEntriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.barcode AS code, p.id AS productId FROM Product p WHERE p.barcode IN :codes")
+    List<BarcodeMapping> findBarcodeMappingsByCodeIn(@Param("codes") Collection<String> codes);
+
     List<Product> findByIsActiveTrue();
     
     Page<Product> findByIsActiveTrue(Pageable pageable);
@@ -41,5 +95,51 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Page<Product> findByStatusAndIsActiveTrue(Product.Status status, Pageable pageable);
 
+    long countByStatusAndIsActiveTrue(Product.Status status);
+
+    // Product list rows with category and supplier names in one statement; append the WHERE clause
+    String LIST_VIEW = "SELECT new com.emart.inventory.dto.ProductListView(p.id, p.name, p.sku, p.description, p.unit, " +
+            "p.purchasePrice, p.mrp, p.minStockLevel, p.maxStockLevel, p.status, c.name, s.name, p.expiryDate, " +
+            "p.manufacturerDate, p.manufacturerCode, p.quantity, p.createdAt) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.supplier s ";
+
+    @Query(value = LIST_VIEW + "WHERE p.isActive = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isActive = true")
+    Page<ProductListView> findActiveListViews(Pageable pageable);
+
+    @Query(value = LIST_VIEW + "WHERE p.isActive = true AND p.status = :status",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isActive = true AND p.status = :status")
+    Page<ProductListView> findActiveListViewsByStatus(@Param("status") Product.Status status, Pageable pageable);
+
+    // ADMIN search over all products, deleted ones included; either filter may be null
+    @Query(value = LIST_VIEW + "WHERE (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                   "AND (:categoryId IS NULL OR c.id = :categoryId)",
+           countQuery = "SELECT COUNT(p) FROM Product p " +
+                        "WHERE (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                        "AND (:categoryId IS NULL OR p.category.id = :categoryId)")
+    Page<ProductListView> searchListViews(@Param("name") String name, @Param("categoryId") Long categoryId, Pageable pageable);
+
+    // Forward-only cursor over every active product for the CSV export; close the stream when done
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(LIST_VIEW + "WHERE p.isActive = true ORDER BY p.id ASC")
+    Stream<ProductListView> streamActiveListViews();
+
+    @Query(LIST_VIEW + "WHERE p.id IN :ids")
+    List<ProductListView> findListViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Seek pages of the newest-first listing: the rows after (createdAt, id), without OFFSET or COUNT
+    @Query(LIST_VIEW + "WHERE p.isActive = true " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductListView> findActiveListViewsAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                   Pageable pageable);
+
+    @Query(LIST_VIEW + "WHERE p.isActive = true AND p.status = :status " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductListView> findActiveListViewsByStatusAfter(@Param("status") Product.Status status,
+                                                           @Param("createdAt") LocalDateTime createdAt,
+                                                           @Param("id") Long id, Pageable pageable);
+
     List<Product> findBySupplierIdAndIsActiveTrue(Long supplierId);
 }
\ No newline at end of file
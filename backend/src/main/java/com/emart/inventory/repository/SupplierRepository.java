@@ -4,6 +4,7 @@ import com.emart.inventory.entity.Supplier;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +13,5 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     List<Supplier> findByIsActiveTrueOrderByNameAsc();
     long countByIsActiveTrue();
     Optional<Supplier> findByName(String name);
+    List<Supplier> findByNameIn(Collection<String> names);
 }
\ No newline at end of file
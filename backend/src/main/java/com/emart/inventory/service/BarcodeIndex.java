@@ -0,0 +1,484 @@
+package com.emart.inventory.service;
+
+import com.emart.inventory.dto.BarcodeMapping;
+import com.emart.inventory.dto.ProductScanEntry;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.repository.BarcodeNewRepository;
+import com.emart.inventory.repository.BarcodeRepository;
+import com.emart.inventory.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index from barcode to product, so a POS scan doesn't cost a database round trip. It covers
+ * all three places a barcode can live: generated barcodes ({@code barcodes_new}), the older
+ * {@code barcode} table, and the barcode column on the product itself. When more than one claims a code,
+ * that is also the order of precedence.
+ * <p>
+ * Numeric codes, which is every EAN/UPC the app generates, are packed into longs in an open-addressing
+ * table instead of being kept as strings. The index is loaded once the application is ready. After that,
+ * barcode generation and {@link ProductService} keep it current. Scans query the database until the load
+ * has finished.
+ */
+@Service
+public class BarcodeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarcodeIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private static final long NO_PRODUCT = -1;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BarcodeRepository barcodeRepository;
+
+    @Autowired
+    private BarcodeNewRepository barcodeNewRepository;
+
+    @Value("${barcode.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Codes codes = new Codes(0);
+    // Changes committed while the initial load runs, applied on top of it
+    private final List<Consumer<Codes>> pending = new ArrayList<>();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        loading = true;
+        Thread loader = new Thread(this::loadFromDatabase, "barcode-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void loadFromDatabase() {
+        long started = System.currentTimeMillis();
+        try {
+            List<ProductScanEntry> products = readProducts();
+            List<BarcodeMapping> legacy = barcodeRepository.findAllMappings();
+            List<BarcodeMapping> generated = barcodeNewRepository.findAllMappings();
+            load(products, legacy, generated);
+            logger.info("Barcode index loaded with {} products, {} legacy and {} generated barcodes in {} ms",
+                    products.size(), legacy.size(), generated.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Could not load barcode index, scans will query the database: {}", e.getMessage(), e);
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                pending.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Every product, walked in keyset pages so no single query holds the whole table
+    private List<ProductScanEntry> readProducts() {
+        List<ProductScanEntry> entries = new ArrayList<>();
+        PageRequest batch = PageRequest.of(0, LOAD_BATCH_SIZE);
+        Long afterId = 0L;
+        List<ProductScanEntry> page;
+        do {
+            page = productRepository.findScanEntriesAfter(afterId, batch);
+            entries.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_BATCH_SIZE);
+        return entries;
+    }
+
+    /**
+     * Replaces the index contents, plus any changes committed while they were read.
+     *
+     * @param legacy    barcodes from the {@code barcode} table
+     * @param generated barcodes from {@code barcodes_new}
+     */
+    public void load(List<ProductScanEntry> products, List<BarcodeMapping> legacy, List<BarcodeMapping> generated) {
+        Codes loaded = new Codes(products.size());
+        for (ProductScanEntry product : products) {
+            loaded.putProduct(new ScannedProduct(product.getId(), product.getName(), product.getSku(),
+                    product.getMrp(), product.getUnit(), product.getBarcode(), !Boolean.FALSE.equals(product.getIsActive())));
+        }
+        for (BarcodeMapping mapping : legacy) {
+            loaded.legacy.put(mapping.getCode(), mapping.getProductId());
+        }
+        for (BarcodeMapping mapping : generated) {
+            loaded.generated.put(mapping.getCode(), mapping.getProductId());
+        }
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Codes> change : pending) {
+                change.accept(loaded);
+            }
+            pending.clear();
+            codes = loaded;
+            loading = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a product after it was saved, including a change of its own barcode.
+     */
+    public void put(Product product) {
+        ScannedProduct scanned = new ScannedProduct(product.getId(), product.getName(), product.getSku(),
+                product.getMrp(), product.getUnit(), product.getBarcode(), !Boolean.FALSE.equals(product.getIsActive()));
+        apply(index -> index.putProduct(scanned));
+    }
+
+    /**
+     * Same as {@link #put(Product)}, for products changed by a bulk update and read back as projections.
+     */
+    public void put(ProductScanEntry product) {
+        ScannedProduct scanned = new ScannedProduct(product.getId(), product.getName(), product.getSku(),
+                product.getMrp(), product.getUnit(), product.getBarcode(), !Boolean.FALSE.equals(product.getIsActive()));
+        apply(index -> index.putProduct(scanned));
+    }
+
+    /**
+     * Maps a code saved to the {@code barcode} table, once the surrounding transaction commits.
+     */
+    public void legacyBarcodeSaved(String code, Long productId) {
+        whenCommitted(() -> apply(index -> index.legacy.put(code, productId)));
+    }
+
+    /**
+     * Maps a code saved to {@code barcodes_new}, once the surrounding transaction commits.
+     */
+    public void generatedBarcodeSaved(String code, Long productId) {
+        whenCommitted(() -> apply(index -> index.generated.put(code, productId)));
+    }
+
+    private void apply(Consumer<Codes> change) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                change.accept(codes);
+            } else if (loading) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void whenCommitted(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * The active product behind each code, in the order the codes were given. Codes that match nothing,
+     * or only a deleted product, are left out.
+     */
+    public Map<String, ScannedProduct> resolve(Collection<String> requested) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String code : requested) {
+            if (code != null && !code.isBlank()) {
+                distinct.add(code.trim());
+            }
+        }
+        if (!ready) {
+            return resolveFromDatabase(distinct);
+        }
+        Map<String, ScannedProduct> resolved = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String code : distinct) {
+                ScannedProduct product = codes.productFor(code);
+                if (product != null && product.active) {
+                    resolved.put(code, product);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resolved;
+    }
+
+    // Same precedence as the index, in one query per table
+    private Map<String, ScannedProduct> resolveFromDatabase(Set<String> distinct) {
+        Map<String, ScannedProduct> resolved = new LinkedHashMap<>();
+        if (distinct.isEmpty()) {
+            return resolved;
+        }
+        Map<String, Long> productIds = new HashMap<>();
+        for (BarcodeMapping mapping : productRepository.findBarcodeMappingsByCodeIn(distinct)) {
+            productIds.put(mapping.getCode(), mapping.getProductId());
+        }
+        for (BarcodeMapping mapping : barcodeRepository.findMappingsByCodeIn(distinct)) {
+            productIds.put(mapping.getCode(), mapping.getProductId());
+        }
+        for (BarcodeMapping mapping : barcodeNewRepository.findMappingsByCodeIn(distinct)) {
+            productIds.put(mapping.getCode(), mapping.getProductId());
+        }
+        if (productIds.isEmpty()) {
+            return resolved;
+        }
+        Map<Long, ScannedProduct> products = new HashMap<>();
+        for (ProductScanEntry entry : productRepository.findScanEntriesByIdIn(new LinkedHashSet<>(productIds.values()))) {
+            products.put(entry.getId(), new ScannedProduct(entry.getId(), entry.getName(), entry.getSku(),
+                    entry.getMrp(), entry.getUnit(), entry.getBarcode(), !Boolean.FALSE.equals(entry.getIsActive())));
+        }
+        for (String code : distinct) {
+            ScannedProduct product = products.get(productIds.get(code));
+            if (product != null && product.active) {
+                resolved.put(code, product);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * What a scan returns for a product.
+     */
+    public static final class ScannedProduct {
+        private final Long id;
+        private final String name;
+        private final String sku;
+        private final BigDecimal mrp;
+        private final String unit;
+        // Kept to drop the product's old code when its barcode changes
+        private final String barcode;
+        private final boolean active;
+
+        ScannedProduct(Long id, String name, String sku, BigDecimal mrp, String unit, String barcode, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.mrp = mrp;
+            this.unit = unit;
+            this.barcode = barcode != null && !barcode.isBlank() ? barcode.trim() : null;
+            this.active = active;
+        }
+
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public String getSku() { return sku; }
+        public BigDecimal getMrp() { return mrp; }
+        public String getUnit() { return unit; }
+    }
+
+    // Not thread-safe; guarded by the index lock
+    private static final class Codes {
+        final CodeMap generated = new CodeMap(16);
+        final CodeMap legacy = new CodeMap(16);
+        final CodeMap own;
+        final Map<Long, ScannedProduct> products;
+
+        Codes(int expectedProducts) {
+            own = new CodeMap(expectedProducts);
+            products = new HashMap<>(Math.max(16, expectedProducts * 4 / 3 + 1));
+        }
+
+        void putProduct(ScannedProduct product) {
+            ScannedProduct previous = products.put(product.id, product);
+            if (previous != null && previous.barcode != null && !previous.barcode.equals(product.barcode)) {
+                own.remove(previous.barcode, product.id);
+            }
+            if (product.barcode != null) {
+                own.put(product.barcode, product.id);
+            }
+        }
+
+        ScannedProduct productFor(String code) {
+            long id = generated.get(code);
+            if (id == NO_PRODUCT) {
+                id = legacy.get(code);
+            }
+            if (id == NO_PRODUCT) {
+                id = own.get(code);
+            }
+            return id == NO_PRODUCT ? null : products.get(id);
+        }
+    }
+
+    /**
+     * Code to product id. Codes of up to 17 digits are packed into a long key, so the usual EAN/UPC codes
+     * cost two array slots instead of a String and a boxed Long in a HashMap. Anything else falls back to a
+     * map.
+     */
+    private static final class CodeMap {
+        private static final int MAX_PACKED_DIGITS = 17;
+
+        private final PackedMap packed;
+        private final Map<String, Long> other = new HashMap<>();
+
+        CodeMap(int expected) {
+            packed = new PackedMap(expected);
+        }
+
+        void put(String code, long productId) {
+            long key = pack(code);
+            if (key != 0) {
+                packed.put(key, productId);
+            } else {
+                other.put(code, productId);
+            }
+        }
+
+        long get(String code) {
+            long key = pack(code);
+            if (key != 0) {
+                return packed.get(key);
+            }
+            Long productId = other.get(code);
+            return productId != null ? productId : NO_PRODUCT;
+        }
+
+        // Only while the code still points at the product, so a code taken over by another one stays
+        void remove(String code, long productId) {
+            long key = pack(code);
+            if (key != 0) {
+                if (packed.get(key) == productId) {
+                    packed.remove(key);
+                }
+            } else {
+                other.remove(code, productId);
+            }
+        }
+
+        // The digit count in the low bits keeps codes apart that differ only in leading zeros; 0 means not packable
+        private static long pack(String code) {
+            int length = code.length();
+            if (length == 0 || length > MAX_PACKED_DIGITS) {
+                return 0;
+            }
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                char c = code.charAt(i);
+                if (c < '0' || c > '9') {
+                    return 0;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value * 32 + length;
+        }
+    }
+
+    /**
+     * Open-addressing long to long table with linear probing. Key 0 marks an empty slot, which
+     * {@link CodeMap#pack} never produces.
+     */
+    private static final class PackedMap {
+        private long[] keys;
+        private long[] values;
+        private int mask;
+        private int size;
+
+        PackedMap(int expected) {
+            int capacity = 16;
+            while (capacity * 3 / 4 < expected) {
+                capacity <<= 1;
+            }
+            keys = new long[capacity];
+            values = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        long get(long key) {
+            for (int slot = slot(key); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return NO_PRODUCT;
+        }
+
+        void put(long key, long value) {
+            if ((size + 1) > keys.length * 3 / 4) {
+                resize();
+            }
+            int slot = slot(key);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        void remove(long key) {
+            int hole = slot(key);
+            while (keys[hole] != key) {
+                if (keys[hole] == 0) {
+                    return;
+                }
+                hole = (hole + 1) & mask;
+            }
+            // Shift later entries of the probe run back, so lookups never stop at the hole too early
+            for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            mask = keys.length - 1;
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
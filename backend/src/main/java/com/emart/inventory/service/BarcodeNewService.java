@@ -20,6 +20,8 @@ public class BarcodeNewService {
     private BarcodeNewRepository barcodeNewRepository;
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private BarcodeIndex barcodeIndex;
 
     // Generate barcode for a product
     public BarcodeNew generateBarcode(Long productId, String manufacturerCode) {
@@ -46,8 +48,9 @@ public class BarcodeNewService {
         int checkDigit = calculateEAN13CheckDigit(base);
         String fullBarcode = base + checkDigit;
 
-        BarcodeNew barcode = new BarcodeNew(fullBarcode, product, manu);
-        return barcodeNewRepository.save(barcode);
+        BarcodeNew barcode = barcodeNewRepository.save(new BarcodeNew(fullBarcode, product, manu));
+        barcodeIndex.generatedBarcodeSaved(barcode.getCode(), product.getId());
+        return barcode;
     }
 
     // Get barcode for a product
@@ -21,6 +21,9 @@ public class BarcodeServiceImpl implements BarcodeService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
     @Override
     public Barcode generateBarcodeForProduct(Long productId) {
         Product product = productRepository.findById(productId)
@@ -34,8 +37,9 @@ public class BarcodeServiceImpl implements BarcodeService {
         int checkDigit = BarcodeUtil.calculateEAN13CheckDigit(baseBarcode);
         String fullBarcode = baseBarcode + checkDigit;
 
-        Barcode barcode = new Barcode(fullBarcode, product);
-        return barcodeRepository.save(barcode);
+        Barcode barcode = barcodeRepository.save(new Barcode(fullBarcode, product));
+        barcodeIndex.legacyBarcodeSaved(barcode.getCode(), product.getId());
+        return barcode;
     }
 
     @Override
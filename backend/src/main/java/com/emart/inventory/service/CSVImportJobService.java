@@ -0,0 +1,240 @@
+package com.emart.inventory.service;
+
+import com.emart.inventory.entity.CSVImport;
+import com.emart.inventory.util.CSVHelper;
+import com.emart.inventory.util.ParallelCSVParser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs CSV uploads in the background on a bounded worker pool. The upload (plain, gzip or zip) is
+ * spooled to a temp file so the request can return the import id right away; progress is kept in
+ * memory while the job runs.
+ */
+@Service
+public class CSVImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CSVImportJobService.class);
+
+    // How long finished jobs stay pollable from memory before falling back to the stored counts
+    private static final long FINISHED_PROGRESS_RETENTION_MS = TimeUnit.MINUTES.toMillis(30);
+
+    @Autowired
+    private CSVImportService csvImportService;
+
+    @Value("${csv.import.workers:2}")
+    private int workers;
+
+    @Value("${csv.import.queue-capacity:20}")
+    private int queueCapacity;
+
+    // Uncompressed uploads at least this big are parsed on several cores
+    @Value("${csv.import.parallel-parse-threshold:64MB}")
+    private DataSize parallelParseThreshold;
+
+    // Parser threads shared by all imports; 0 means one per CPU
+    @Value("${csv.import.parse-parallelism:0}")
+    private int parseParallelism;
+
+    private final Map<Long, CSVImportProgress> progressById = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    private ForkJoinPool parsePool;
+
+    private ParallelCSVParser parallelParser;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "csv-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        parsePool = new ForkJoinPool(parseParallelism > 0 ? parseParallelism : Runtime.getRuntime().availableProcessors());
+        parallelParser = new ParallelCSVParser(parsePool, ParallelCSVParser.DEFAULT_SEGMENT_SIZE);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        parsePool.shutdown();
+    }
+
+    /**
+     * Spooled uploads don't survive a restart, so imports this node was staging can never finish. Imports
+     * other nodes are staging are left alone, unless their owner stopped heartbeating, in which case it died
+     * too. Imports of a node that never comes back are failed by the next node that starts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // before the spool watcher starts new imports
+    public void failInterruptedImports() {
+        for (CSVImport csvImport : csvImportService.findOrphanedImports(CSVImport.Status.PROCESSING)) {
+            logger.warn("Marking CSV import {} as failed, it was interrupted by a restart", csvImport.getId());
+            csvImportService.markFailed(csvImport.getId(), "Import was interrupted by a server restart");
+        }
+    }
+
+    /**
+     * Approvals run in committed chunks, so one cut short by a restart is picked up again from its checkpoint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedApprovals() {
+        // Approvals still running on other nodes would refuse the claim anyway
+        for (CSVImport csvImport : csvImportService.findOrphanedImports(CSVImport.Status.APPROVING)) {
+            Long importId = csvImport.getId();
+            logger.info("Resuming interrupted approval of CSV import {}", importId);
+            try {
+                executor.execute(() -> csvImportService.approveImport(importId, "system"));
+            } catch (RejectedExecutionException e) {
+                logger.warn("Could not queue approval resume for import {}; approve it again to resume", importId);
+            }
+        }
+    }
+
+    public Map<String, Object> submitUpload(MultipartFile file, String uploadedBy, CSVImport.Mode mode) throws IOException {
+        Path spooled = Files.createTempFile("csv-import-", ".upload");
+        try {
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        CSVImport csvImport = csvImportService.createImport(file.getOriginalFilename(), uploadedBy, mode);
+        Map<String, Object> response = submit(csvImport, spooled, staged -> deleteSpooled(spooled),
+                importId -> csvImportService.markFailed(importId, "Import queue is full"));
+        if (!Boolean.TRUE.equals(response.get("success"))) {
+            deleteSpooled(spooled);
+        }
+        return response;
+    }
+
+    /**
+     * Queues the import of a file that is already on disk, such as one claimed from the spool directory.
+     * {@code onFinished} runs on the worker once the import is done, with whether it was staged. It is
+     * not called if the queue was full; the response says so and the caller still owns the file. No import
+     * is recorded then, since the caller retries the same file later.
+     */
+    public Map<String, Object> submitFile(Path file, String fileName, String uploadedBy, CSVImport.Mode mode,
+                                          Consumer<Boolean> onFinished) {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            return queueFull();
+        }
+        CSVImport csvImport = csvImportService.createImport(fileName, uploadedBy, mode);
+        // The queue can still fill up in between; drop the placeholder rather than record a failed import
+        return submit(csvImport, file, onFinished, csvImportService::deleteImport);
+    }
+
+    private Map<String, Object> submit(CSVImport csvImport, Path file, Consumer<Boolean> onFinished,
+                                       Consumer<Long> onRejected) {
+        Long importId = csvImport.getId();
+        Map<String, Object> response = new HashMap<>();
+
+        purgeFinished();
+        CSVImportProgress progress = new CSVImportProgress(importId);
+        progressById.put(importId, progress);
+
+        try {
+            executor.execute(() -> onFinished.accept(runImport(importId, file, csvImport.getFileName(), progress)));
+        } catch (RejectedExecutionException e) {
+            logger.warn("CSV import queue is full, rejecting import {}", importId);
+            progressById.remove(importId);
+            onRejected.accept(importId);
+            return queueFull();
+        }
+
+        response.put("success", true);
+        response.put("importId", importId);
+        response.put("status", CSVImport.Status.PROCESSING.name());
+        response.put("mode", csvImport.getMode().name());
+        response.put("message", "CSV upload accepted. Processing in background.");
+        return response;
+    }
+
+    private static Map<String, Object> queueFull() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", "Too many imports in progress. Please try again later.");
+        return response;
+    }
+
+    private boolean runImport(Long importId, Path file, String fileName, CSVImportProgress progress) {
+        try {
+            Map<String, Object> result;
+            if (isPlainCsv(fileName) && Files.size(file) >= parallelParseThreshold.toBytes()) {
+                result = csvImportService.processImport(importId,
+                        (size, consumer) -> parallelParser.forEachChunk(file, size, consumer), progress);
+            } else {
+                // Compressed uploads stay compressed on disk and are inflated as the parser reads them
+                try (InputStream in = CSVHelper.openUpload(Files.newInputStream(file), fileName)) {
+                    result = csvImportService.processImport(importId, in, progress);
+                }
+            }
+            return Boolean.TRUE.equals(result.get("success"));
+        } catch (Exception e) {
+            logger.error("CSV import {} failed: {}", importId, e.getMessage(), e);
+            if (!progress.isDone()) {
+                csvImportService.markFailed(importId, e.getMessage());
+                progress.fail(e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private void deleteSpooled(Path spooled) {
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled upload {}: {}", spooled, e.getMessage());
+        }
+    }
+
+    private static boolean isPlainCsv(String fileName) {
+        return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    public Optional<Map<String, Object>> getProgress(Long importId) {
+        CSVImportProgress progress = progressById.get(importId);
+        if (progress != null) {
+            return Optional.of(progress.toMap());
+        }
+        return csvImportService.getStoredProgress(importId);
+    }
+
+    private void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - FINISHED_PROGRESS_RETENTION_MS;
+        progressById.values().removeIf(p -> p.isDone() && p.getFinishedAt() < cutoff);
+    }
+}
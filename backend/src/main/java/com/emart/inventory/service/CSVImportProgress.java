@@ -0,0 +1,78 @@
+package com.emart.inventory.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters for a CSV import that is being parsed and staged. Updated by the import worker and
+ * read concurrently by the progress endpoint.
+ */
+public class CSVImportProgress {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final Long importId;
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsValidated = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+
+    private volatile State state = State.QUEUED;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String error;
+
+    public CSVImportProgress(Long importId) {
+        this.importId = importId;
+    }
+
+    public void start() {
+        startedAt = System.currentTimeMillis();
+        state = State.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = System.currentTimeMillis();
+        state = State.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = System.currentTimeMillis();
+        state = State.FAILED;
+    }
+
+    public void addParsed(int rows) { rowsParsed.addAndGet(rows); }
+    public void addValidated(int rows) { rowsValidated.addAndGet(rows); }
+    public void addPersisted(int rows) { rowsPersisted.addAndGet(rows); }
+
+    public Long getImportId() { return importId; }
+    public State getState() { return state; }
+    public long getFinishedAt() { return finishedAt; }
+
+    public boolean isDone() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public Map<String, Object> toMap() {
+        long persisted = rowsPersisted.get();
+        long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+        long elapsedMillis = startedAt > 0 ? Math.max(end - startedAt, 1) : 0;
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("importId", importId);
+        map.put("status", state.name());
+        map.put("rowsParsed", rowsParsed.get());
+        map.put("rowsValidated", rowsValidated.get());
+        map.put("rowsPersisted", persisted);
+        map.put("elapsedMillis", elapsedMillis);
+        map.put("rowsPerSecond", elapsedMillis > 0 ? persisted * 1000 / elapsedMillis : 0);
+        map.put("done", isDone());
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+}
@@ -1,34 +1,102 @@
 package com.emart.inventory.service;
 
 import com.emart.inventory.dto.ProductCSVDTO;
+import com.emart.inventory.dto.ProductImportState;
 import com.emart.inventory.entity.*;
 import com.emart.inventory.repository.CSVImportItemRepository;
 import com.emart.inventory.repository.CSVImportRepository;
 import com.emart.inventory.repository.InventoryRepository;
+import com.emart.inventory.util.CSVChunkSource;
+import com.emart.inventory.util.CSVFieldParser;
 import com.emart.inventory.util.CSVHelper;
+import com.emart.inventory.util.CSVImportValidator;
+import com.opencsv.CSVWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class CSVImportService {
 
     private static final Logger logger = LoggerFactory.getLogger(CSVImportService.class);
 
+    // Cap on the number of item errors returned by an approval
+    private static final int MAX_ERROR_DETAIL_LINES = 1000;
+
+    // Matches the errorDetails column; row errors live on the import items
+    private static final int MAX_ERROR_SUMMARY_LENGTH = 1000;
+
+    // Rejected rows read per query when writing the error CSV
+    private static final int ERROR_EXPORT_PAGE_SIZE = 1000;
+
+    @Value("${csv.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${csv.import.approval-chunk-size:500}")
+    private int approvalChunkSize;
+
+    @Value("${csv.import.reject-chunk-size:50000}")
+    private int rejectChunkSize;
+
+    // Imports whose approval is running on this node, so a retry can't race the running approval
+    private final Set<Long> approvalsInProgress = ConcurrentHashMap.newKeySet();
+
+    // Names this node as the owner of the imports it stages and approves; defaults to host and port, so it stays the
+    // same across restarts and two nodes on one host don't share it
+    @Value("${csv.import.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    // An import whose owner hasn't committed a chunk for this long is no longer being worked on
+    @Value("${csv.import.heartbeat-timeout:5m}")
+    private Duration heartbeatTimeout;
+
+    private String nodeId;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
     @Autowired
     private CSVImportRepository csvImportRepository;
 
@@ -47,90 +115,124 @@ public class CSVImportService {
     @Autowired
     private InventoryRepository inventoryRepository;
 
-    @Transactional
-    public Map<String, Object> uploadCSV(MultipartFile file, String uploadedBy) {
+    public CSVImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void initNodeId() {
+        if (configuredNodeId != null && !configuredNodeId.isBlank()) {
+            nodeId = configuredNodeId.trim();
+            return;
+        }
+        try {
+            nodeId = InetAddress.getLocalHost().getHostName() + ":" + serverPort;
+        } catch (UnknownHostException e) {
+            nodeId = "node-" + UUID.randomUUID();
+            logger.warn("Could not resolve the host name, CSV imports are owned by {} until restart", nodeId);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Parses, validates and stages an upload on the calling thread. Background uploads go through
+     * {@link CSVImportJobService} instead.
+     */
+    public Map<String, Object> uploadCSV(MultipartFile file, String uploadedBy, CSVImport.Mode mode) {
+        CSVImport csvImport = createImport(file.getOriginalFilename(), uploadedBy, mode);
+        CSVImportProgress progress = new CSVImportProgress(csvImport.getId());
+        
+        try (InputStream in = CSVHelper.openUpload(file.getInputStream(), file.getOriginalFilename())) {
+            return processImport(csvImport.getId(), in, progress);
+        } catch (IOException e) {
+            logger.error("Error reading CSV upload: {}", e.getMessage(), e);
+            markFailed(csvImport.getId(), "Failed to read upload: " + e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "Failed to upload CSV: " + e.getMessage());
+            return response;
+        }
+    }
+
+    public CSVImport createImport(String fileName, String uploadedBy, CSVImport.Mode mode) {
+        CSVImport csvImport = new CSVImport();
+        csvImport.setFileName(fileName);
+        csvImport.setUploadedBy(uploadedBy);
+        csvImport.setMode(mode);
+        csvImport.setStatus(CSVImport.Status.PROCESSING);
+        csvImport.setOwner(nodeId);
+        csvImport.setHeartbeatAt(LocalDateTime.now());
+        return csvImportRepository.save(csvImport);
+    }
+
+    /**
+     * Streams the CSV into staging items of the given import. Every chunk is committed in its own
+     * transaction, so no connection is held for the whole file. On success the import moves to
+     * PENDING for checker review; on failure its staged items are removed and it is marked FAILED.
+     */
+    public Map<String, Object> processImport(Long importId, InputStream in, CSVImportProgress progress) {
+        return processImport(importId, (size, consumer) -> CSVHelper.forEachChunk(in, size, consumer), progress);
+    }
+
+    /**
+     * Same as {@link #processImport(Long, InputStream, CSVImportProgress)}, but rows come from any
+     * chunk source, such as the parallel parser for large spooled files.
+     */
+    public Map<String, Object> processImport(Long importId, CSVChunkSource source, CSVImportProgress progress) {
         Map<String, Object> response = new HashMap<>();
+        progress.start();
         
         try {
-            // Parse CSV file
-            List<ProductCSVDTO> csvData = CSVHelper.convert(file);
-            
-            // Create CSV Import record
-            CSVImport csvImport = new CSVImport();
-            csvImport.setFileName(file.getOriginalFilename());
-            csvImport.setUploadedBy(uploadedBy);
-            csvImport.setTotalRecords(csvData.size());
-            csvImport.setStatus(CSVImport.Status.PENDING);
-            
-            CSVImport savedImport = csvImportRepository.save(csvImport);
-            
-            // Process each CSV row and create import items
-            List<CSVImportItem> importItems = new ArrayList<>();
-            int validRecords = 0;
-            int invalidRecords = 0;
-            List<String> errors = new ArrayList<>();
-            
-            for (int i = 0; i < csvData.size(); i++) {
-                ProductCSVDTO dto = csvData.get(i);
-                CSVImportItem item = new CSVImportItem();
-                item.setCsvImport(savedImport);
-                
-                // Map DTO to Import Item
-                item.setName(dto.getName());
-                item.setDescription(dto.getDescription());
-                item.setSku(dto.getSku());
-                item.setBarcode(dto.getBarcode());
-                item.setCategoryName(dto.getCategoryName());
-                item.setSupplierName(dto.getSupplierName());
-                item.setUnit(dto.getUnit());
-                item.setPurchasePrice(dto.getPurchasePrice());
-                item.setMrp(dto.getMrp());
-                item.setMinStockLevel(dto.getMinStockLevel());
-                item.setMaxStockLevel(dto.getMaxStockLevel());
-                item.setExpiryDate(dto.getExpiryDate());
-                item.setManufacturerDate(dto.getManufacturerDate());
-                item.setBatchNumber(dto.getBatchNumber());
-                item.setManufacturerCode(dto.getManufacturerCode());
-                item.setQuantity(dto.getQuantity());
-                item.setSupplierEmail(dto.getSupplierEmail());
-                item.setSupplierPhone(dto.getSupplierPhone());
-                item.setSupplierAddress(dto.getSupplierAddress());
-                
-                // Validate the item
-                String validationError = validateImportItem(dto);
-                if (validationError != null) {
-                    item.setStatus(CSVImportItem.Status.REJECTED);
-                    item.setErrorMessage(validationError);
-                    invalidRecords++;
-                    errors.add("Row " + (i + 2) + ": " + validationError);
-                } else {
-                    item.setStatus(CSVImportItem.Status.PENDING);
-                    validRecords++;
-                }
-                
-                importItems.add(item);
-            }
+            CSVImport csvImport = csvImportRepository.findById(importId)
+                    .orElseThrow(() -> new RuntimeException("Import not found"));
             
-            // Save all import items
-            csvImportItemRepository.saveAll(importItems);
+            // Parse, validate and save the CSV rows chunk by chunk
+            UploadTally tally = new UploadTally();
+            int totalRecords = source.forEachChunk(chunkSize, chunk -> {
+                progress.addParsed(chunk.size());
+                transactionTemplate.executeWithoutResult(status -> {
+                    stageChunk(csvImport, chunk, tally, progress);
+                    csvImportRepository.heartbeat(importId, LocalDateTime.now());
+                });
+                progress.addPersisted(chunk.size());
+            });
             
             // Update import record with counts
-            savedImport.setValidRecords(validRecords);
-            savedImport.setInvalidRecords(invalidRecords);
-            if (!errors.isEmpty()) {
-                savedImport.setErrorDetails(String.join("\n", errors));
-            }
-            csvImportRepository.save(savedImport);
+            transactionTemplate.executeWithoutResult(status -> {
+                CSVImport savedImport = csvImportRepository.findById(importId)
+                        .orElseThrow(() -> new RuntimeException("Import not found"));
+                savedImport.setTotalRecords(totalRecords);
+                savedImport.setValidRecords(tally.validRecords);
+                savedImport.setInvalidRecords(tally.invalidRecords);
+                savedImport.setUnchangedRecords(tally.unchangedRecords);
+                if (tally.invalidRecords > 0) {
+                    savedImport.setErrorDetails(summarize(tally.invalidRecords + " of " + totalRecords +
+                            " rows failed validation. First error: " + tally.firstError));
+                }
+                savedImport.setStatus(CSVImport.Status.PENDING);
+                csvImportRepository.save(savedImport);
+            });
+            progress.complete();
             
             response.put("success", true);
-            response.put("importId", savedImport.getId());
-            response.put("totalRecords", csvData.size());
-            response.put("validRecords", validRecords);
-            response.put("invalidRecords", invalidRecords);
+            response.put("importId", importId);
+            response.put("totalRecords", totalRecords);
+            response.put("validRecords", tally.validRecords);
+            response.put("invalidRecords", tally.invalidRecords);
+            response.put("mode", csvImport.getMode().name());
+            response.put("newRecords", tally.newRecords);
+            response.put("changedRecords", tally.changedRecords);
+            response.put("unchangedRecords", tally.unchangedRecords);
             response.put("message", "CSV uploaded successfully. Waiting for checker approval.");
             
         } catch (Exception e) {
             logger.error("Error uploading CSV: {}", e.getMessage(), e);
+            // Don't keep a half-written import around
+            markFailed(importId, e.getMessage());
+            progress.fail(e.getMessage());
             response.put("success", false);
             response.put("error", "Failed to upload CSV: " + e.getMessage());
         }
@@ -138,200 +240,683 @@ public class CSVImportService {
         return response;
     }
 
-    private String validateImportItem(ProductCSVDTO dto) {
-        // Basic validation
-        if (dto.getName() == null || dto.getName().trim().isEmpty()) {
-            return "Product name is required";
-        }
-        
-        if (dto.getSku() == null || dto.getSku().trim().isEmpty()) {
-            return "SKU is required";
-        }
-        
-        if (dto.getManufacturerCode() == null || dto.getManufacturerCode().trim().isEmpty()) {
-            return "Manufacturer code is required";
-        }
+    public void markFailed(Long importId, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            csvImportItemRepository.deleteByCsvImportId(importId);
+            csvImportRepository.findById(importId).ifPresent(csvImport -> {
+                csvImport.setStatus(CSVImport.Status.FAILED);
+                csvImport.setErrorDetails(summarize(reason));
+                csvImportRepository.save(csvImport);
+            });
+        });
+    }
+
+    /**
+     * Removes an import that never got to run, such as one whose file will be submitted again later.
+     */
+    public void deleteImport(Long importId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            csvImportItemRepository.deleteByCsvImportId(importId);
+            csvImportRepository.deleteById(importId);
+        });
+    }
+
+    /**
+     * Progress of an import that is no longer tracked by a running job, rebuilt from its stored counts.
+     */
+    public Optional<Map<String, Object>> getStoredProgress(Long importId) {
+        return csvImportRepository.findById(importId).map(csvImport -> {
+            long total = csvImport.getTotalRecords() != null ? csvImport.getTotalRecords() : 0;
+            Map<String, Object> progress = new HashMap<>();
+            progress.put("importId", importId);
+            progress.put("status", csvImport.getStatus().name());
+            progress.put("rowsParsed", total);
+            progress.put("rowsValidated", total);
+            progress.put("rowsPersisted", csvImport.getStatus() == CSVImport.Status.FAILED ? 0 : total);
+            progress.put("validRecords", csvImport.getValidRecords());
+            progress.put("invalidRecords", csvImport.getInvalidRecords());
+            progress.put("unchangedRecords", csvImport.getUnchangedRecords());
+            progress.put("done", csvImport.getStatus() != CSVImport.Status.PROCESSING);
+            return progress;
+        });
+    }
+
+    private void stageChunk(CSVImport csvImport, List<ProductCSVDTO> chunk, UploadTally tally,
+                            CSVImportProgress progress) {
+        List<CSVImportItem> importItems = new ArrayList<>(chunk.size());
         
-        if (dto.getManufacturerCode().length() != 5) {
-            return "Manufacturer code must be exactly 5 digits";
+        // Look up every SKU of the chunk in one go instead of once per row
+        Set<String> chunkSkus = new HashSet<>();
+        for (ProductCSVDTO dto : chunk) {
+            if (dto.getSku() != null && !dto.getSku().trim().isEmpty()) {
+                chunkSkus.add(dto.getSku());
+            }
         }
-        
-        // Check if SKU already exists
-        if (productService.getProductBySku(dto.getSku()).isPresent()) {
-            return "SKU already exists: " + dto.getSku();
+        boolean upsert = csvImport.getMode() == CSVImport.Mode.UPSERT;
+        Map<String, ProductImportState> existingProducts = new HashMap<>();
+        if (upsert) {
+            for (ProductImportState state : productService.findImportStates(chunkSkus)) {
+                existingProducts.put(CSVImportValidator.skuKey(state.getSku()), state);
+            }
+        } else {
+            for (String sku : productService.findExistingSkus(chunkSkus)) {
+                existingProducts.put(CSVImportValidator.skuKey(sku), null);
+            }
         }
+        // In upsert mode an existing SKU is an update, not an error
+        Set<String> existingSkus = upsert ? Set.of() : existingProducts.keySet();
         
-        // Validate dates if provided
-        if (dto.getExpiryDate() != null && !dto.getExpiryDate().trim().isEmpty()) {
-            try {
-                LocalDateTime.parse(dto.getExpiryDate() + "T00:00:00");
-            } catch (Exception e) {
-                return "Invalid expiry date format. Use YYYY-MM-DD";
+        for (ProductCSVDTO dto : chunk) {
+            // Validate the item
+            String validationError = CSVImportValidator.validate(dto, existingSkus, tally.seenSkus);
+            progress.addValidated(1);
+            String contentHash = validationError == null ? contentHash(dto) : null;
+            ProductImportState existing = upsert && validationError == null ? existingProducts.get(CSVImportValidator.skuKey(dto.getSku())) : null;
+            
+            // Rows identical to what was last imported for the product cost no writes at all
+            if (existing != null && contentHash.equals(existing.getImportHash())) {
+                tally.unchangedRecords++;
+                continue;
+            }
+            
+            CSVImportItem item = toImportItem(dto);
+            item.setCsvImport(csvImport);
+            if (validationError != null) {
+                item.setStatus(CSVImportItem.Status.REJECTED);
+                item.setErrorMessage(validationError);
+                tally.invalidRecords++;
+                if (tally.firstError == null) {
+                    tally.firstError = "Row " + dto.getRowNumber() + ": " + validationError;
+                }
+            } else {
+                item.setStatus(CSVImportItem.Status.PENDING);
+                item.setContentHash(contentHash);
+                if (existing != null) {
+                    item.setAction(CSVImportItem.Action.UPDATE);
+                    item.setProductId(existing.getId());
+                    tally.changedRecords++;
+                } else {
+                    item.setAction(CSVImportItem.Action.CREATE);
+                    tally.newRecords++;
+                }
+                tally.validRecords++;
             }
+            
+            importItems.add(item);
         }
         
-        if (dto.getManufacturerDate() != null && !dto.getManufacturerDate().trim().isEmpty()) {
-            try {
-                LocalDateTime.parse(dto.getManufacturerDate() + "T00:00:00");
-            } catch (Exception e) {
-                return "Invalid manufacturer date format. Use YYYY-MM-DD";
+        csvImportItemRepository.saveAll(importItems);
+        // Write the chunk out and detach it so the persistence context doesn't grow with the file
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private CSVImportItem toImportItem(ProductCSVDTO dto) {
+        CSVImportItem item = new CSVImportItem();
+        item.setRowNumber(dto.getRowNumber());
+        item.setName(dto.getName());
+        item.setDescription(dto.getDescription());
+        item.setSku(dto.getSku());
+        item.setBarcode(dto.getBarcode());
+        item.setCategoryName(dto.getCategoryName());
+        item.setSupplierName(dto.getSupplierName());
+        item.setUnit(dto.getUnit());
+        item.setPurchasePrice(dto.getPurchasePrice());
+        item.setMrp(dto.getMrp());
+        item.setMinStockLevel(dto.getMinStockLevel());
+        item.setMaxStockLevel(dto.getMaxStockLevel());
+        item.setExpiryDate(dto.getExpiryDate());
+        item.setManufacturerDate(dto.getManufacturerDate());
+        item.setBatchNumber(dto.getBatchNumber());
+        item.setManufacturerCode(dto.getManufacturerCode());
+        item.setQuantity(dto.getQuantity());
+        item.setSupplierEmail(dto.getSupplierEmail());
+        item.setSupplierPhone(dto.getSupplierPhone());
+        item.setSupplierAddress(dto.getSupplierAddress());
+        return item;
+    }
+
+    private static class UploadTally {
+        int validRecords;
+        int invalidRecords;
+        // Split of the valid rows, plus the upsert rows that matched the catalog and were skipped
+        int newRecords;
+        int changedRecords;
+        int unchangedRecords;
+        String firstError;
+        // SKUs of the rows accepted so far, to catch duplicates within the file
+        Set<String> seenSkus = new HashSet<>();
+    }
+
+    /**
+     * SHA-256 over the catalog fields of a row, normalised so formatting-only differences (padding,
+     * trailing zeros) don't count as changes. Quantity is left out since imports never update stock.
+     */
+    private static String contentHash(ProductCSVDTO dto) {
+        StringBuilder content = new StringBuilder(256);
+        for (Object field : new Object[] {
+                dto.getName(), dto.getDescription(), dto.getBarcode(), dto.getCategoryName(),
+                dto.getSupplierName(), dto.getUnit(), dto.getPurchasePrice(), dto.getMrp(),
+                dto.getMinStockLevel(), dto.getMaxStockLevel(), dto.getExpiryDate(), dto.getManufacturerDate(),
+                dto.getBatchNumber(), dto.getManufacturerCode(), dto.getSupplierEmail(), dto.getSupplierPhone(),
+                dto.getSupplierAddress()}) {
+            if (field instanceof java.math.BigDecimal) {
+                content.append(((java.math.BigDecimal) field).stripTrailingZeros().toPlainString());
+            } else if (field != null) {
+                content.append(field.toString().trim());
             }
+            content.append('\u001F');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        
-        return null; // No validation errors
+    }
+
+    private static String summarize(String message) {
+        if (message == null || message.length() <= MAX_ERROR_SUMMARY_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_SUMMARY_LENGTH - 3) + "...";
+    }
+
+    // Category/supplier name key, matching the case-insensitive name lookups done by the database
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public List<CSVImport> findImportsByStatus(CSVImport.Status status) {
+        return csvImportRepository.findByStatusOrderByCreatedAtDesc(status);
+    }
+
+    /**
+     * Imports in the given status that no running node is working on: the ones this node owned before it
+     * restarted, and the ones whose owner has not committed a chunk within the heartbeat timeout.
+     */
+    public List<CSVImport> findOrphanedImports(CSVImport.Status status) {
+        return csvImportRepository.findOrphaned(status, nodeId, LocalDateTime.now().minus(heartbeatTimeout));
     }
 
     public Page<CSVImport> getPendingImports(Pageable pageable) {
-        return csvImportRepository.findByStatusOrderByCreatedAtDesc(CSVImport.Status.PENDING, pageable);
+        // Approvals cut short by a restart stay listed so a checker can resume them
+        return csvImportRepository.findByStatusInOrderByCreatedAtDesc(
+                List.of(CSVImport.Status.PENDING, CSVImport.Status.APPROVING), pageable);
     }
 
     public List<CSVImportItem> getImportItems(Long importId) {
         return csvImportItemRepository.findByCsvImportIdOrderByCreatedAtAsc(importId);
     }
 
-    @Transactional
+    public Page<CSVImportItem> getImportErrors(Long importId, int page, int size) {
+        return csvImportItemRepository.findByCsvImportIdAndStatus(importId, CSVImportItem.Status.REJECTED,
+                PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    /**
+     * Writes the rejected rows of an import as a CSV in template format, with the row number and error
+     * appended, so the maker can fix them and upload the file again. Rows are read a page at a time and
+     * written straight to {@code out}, so the report never has to fit in memory.
+     *
+     * @return the number of rows written
+     */
+    public int writeRejectedItems(Long importId, Writer out) throws IOException {
+        int written = 0;
+        CSVWriter writer = new CSVWriter(out);
+        String[] header = Arrays.copyOf(CSVHelper.TEMPLATE_HEADER, CSVHelper.TEMPLATE_HEADER.length + 2);
+        header[header.length - 2] = "rowNumber";
+        header[header.length - 1] = "error";
+        writer.writeNext(header);
+        
+        long afterId = 0L;
+        while (true) {
+            List<CSVImportItem> items = csvImportItemRepository.findItemsAfter(
+                    importId, CSVImportItem.Status.REJECTED, afterId, PageRequest.of(0, ERROR_EXPORT_PAGE_SIZE));
+            if (items.isEmpty()) {
+                break;
+            }
+            for (CSVImportItem item : items) {
+                writer.writeNext(toRejectedRow(item));
+            }
+            written += items.size();
+            afterId = items.get(items.size() - 1).getId();
+            // The request's persistence context stays open while streaming; don't let it fill up
+            entityManager.clear();
+            writer.flush();
+        }
+        writer.flush();
+        return written;
+    }
+
+    private String[] toRejectedRow(CSVImportItem item) {
+        return new String[] {
+            item.getName(), item.getDescription(), item.getSku(), item.getBarcode(), item.getCategoryName(),
+            item.getSupplierName(), item.getUnit(), plain(item.getPurchasePrice()), plain(item.getMrp()),
+            plain(item.getMinStockLevel()), plain(item.getMaxStockLevel()), item.getExpiryDate(),
+            item.getManufacturerDate(), item.getBatchNumber(), item.getManufacturerCode(), plain(item.getQuantity()),
+            item.getSupplierEmail(), item.getSupplierPhone(), item.getSupplierAddress(),
+            plain(item.getRowNumber()), item.getErrorMessage()
+        };
+    }
+
+    private static String plain(Object value) {
+        if (value instanceof java.math.BigDecimal) {
+            return ((java.math.BigDecimal) value).toPlainString();
+        }
+        return value != null ? value.toString() : "";
+    }
+
+    /**
+     * Turns the pending items of an import into products. Items are processed in chunks of
+     * {@code csv.import.approval-chunk-size}, each committed together with a checkpoint on the import,
+     * so an approval interrupted by a crash or redeploy picks up after the last committed chunk when it
+     * is run again.
+     */
     public Map<String, Object> approveImport(Long importId, String approvedBy) {
         Map<String, Object> response = new HashMap<>();
         
+        if (!approvalsInProgress.add(importId)) {
+            response.put("success", false);
+            response.put("error", "Import approval is already in progress");
+            return response;
+        }
+        
+        boolean claimed = false;
         try {
             CSVImport csvImport = csvImportRepository.findById(importId)
                     .orElseThrow(() -> new RuntimeException("Import not found"));
             
-            if (csvImport.getStatus() != CSVImport.Status.PENDING) {
+            if (csvImport.getStatus() != CSVImport.Status.PENDING && csvImport.getStatus() != CSVImport.Status.APPROVING) {
                 response.put("success", false);
                 response.put("error", "Import is not in pending status");
                 return response;
             }
             
-            List<CSVImportItem> items = csvImportItemRepository.findByCsvImportIdAndStatusOrderByCreatedAtAsc(
-                    importId, CSVImportItem.Status.PENDING);
+            boolean resumed = csvImport.getStatus() == CSVImport.Status.APPROVING;
+            // The set above only covers this node; the conditional update keeps other nodes out as well
+            if (!claimApproval(importId, resumed)) {
+                response.put("success", false);
+                response.put("error", "Import approval is already in progress");
+                return response;
+            }
+            claimed = true;
+            csvImport = csvImportRepository.findById(importId)
+                    .orElseThrow(() -> new RuntimeException("Import not found"));
+            if (resumed) {
+                logger.info("Resuming approval of import {} after item {}", importId, csvImport.getApprovalCheckpoint());
+            }
             
-            int processedCount = 0;
-            List<String> errors = new ArrayList<>();
+            long totalItems = csvImportItemRepository.countByCsvImportIdAndStatus(importId, CSVImportItem.Status.PENDING);
+            ImportReferences references = resolveReferences(importId);
+            ApprovalTally tally = new ApprovalTally();
+            long checkpoint = csvImport.getApprovalCheckpoint() != null ? csvImport.getApprovalCheckpoint() : 0L;
             
-            for (CSVImportItem item : items) {
-                try {
-                    // Create or find category
-                    Category category = null;
-                    if (item.getCategoryName() != null && !item.getCategoryName().trim().isEmpty()) {
-                        category = categoryService.findByName(item.getCategoryName())
-                                .orElseGet(() -> {
-                                    Category newCategory = new Category();
-                                    newCategory.setName(item.getCategoryName());
-                                    return categoryService.createCategory(newCategory);
-                                });
-                    }
-                    
-                    // Create or find supplier
-                    Supplier supplier = supplierService.findByName(item.getSupplierName()).orElse(null);
-                    if (supplier == null) {
-                        supplier = new Supplier();
-                        supplier.setName(item.getSupplierName());
-                    }
-                    // Update supplier details from CSV if present
-                    if (item.getSupplierEmail() != null && !item.getSupplierEmail().isEmpty()) {
-                        supplier.setEmail(item.getSupplierEmail());
-                    }
-                    if (item.getSupplierPhone() != null && !item.getSupplierPhone().isEmpty()) {
-                        supplier.setPhone(item.getSupplierPhone());
-                    }
-                    if (item.getSupplierAddress() != null && !item.getSupplierAddress().isEmpty()) {
-                        supplier.setAddress(item.getSupplierAddress());
-                    }
-                    supplierService.createSupplier(supplier);
-                    
-                    // Create product
-                    Product product = new Product();
-                    product.setName(item.getName());
-                    product.setDescription(item.getDescription());
-                    product.setSku(item.getSku());
-                    product.setBarcode(item.getBarcode());
-                    product.setCategory(category);
-                    product.setSupplier(supplier);
-                    product.setUnit(item.getUnit() != null ? item.getUnit() : "pcs");
-                    product.setPurchasePrice(item.getPurchasePrice() != null ? item.getPurchasePrice() : java.math.BigDecimal.ZERO);
-                    product.setMrp(item.getMrp() != null ? item.getMrp() : java.math.BigDecimal.ZERO);
-                    product.setMinStockLevel(item.getMinStockLevel() != null ? item.getMinStockLevel() : 0);
-                    product.setMaxStockLevel(item.getMaxStockLevel() != null ? item.getMaxStockLevel() : 1000);
-                    product.setManufacturerCode(item.getManufacturerCode());
-                    product.setStatus(Product.Status.APPROVED); // Direct approval
-                    product.setIsActive(true);
-                    
-                    // Set dates if provided
-                    if (item.getExpiryDate() != null && !item.getExpiryDate().trim().isEmpty()) {
-                        product.setExpiryDate(LocalDateTime.parse(item.getExpiryDate() + "T00:00:00"));
-                    }
-                    if (item.getManufacturerDate() != null && !item.getManufacturerDate().trim().isEmpty()) {
-                        product.setManufacturerDate(LocalDateTime.parse(item.getManufacturerDate() + "T00:00:00"));
-                    }
-                    // Set quantity from CSV
-                    product.setQuantity(item.getQuantity());
-                    productService.createProduct(product);
-                    
-                    // Mark item as processed
-                    item.setStatus(CSVImportItem.Status.PROCESSED);
-                    csvImportItemRepository.save(item);
-                    
-                    processedCount++;
-                    
-                } catch (Exception e) {
-                    logger.error("Error processing import item {}: {}", item.getId(), e.getMessage());
-                    item.setStatus(CSVImportItem.Status.REJECTED);
-                    item.setErrorMessage(e.getMessage());
-                    csvImportItemRepository.save(item);
-                    errors.add("Item " + item.getName() + ": " + e.getMessage());
+            while (true) {
+                List<Long> itemIds = csvImportItemRepository.findIdsForApproval(
+                        importId, CSVImportItem.Status.PENDING, checkpoint, PageRequest.of(0, approvalChunkSize));
+                if (itemIds.isEmpty()) {
+                    break;
                 }
+                approveChunk(importId, itemIds, references, tally);
+                checkpoint = itemIds.get(itemIds.size() - 1);
             }
             
             // Update import status
-            csvImport.setStatus(CSVImport.Status.APPROVED);
-            csvImportRepository.save(csvImport);
+            transactionTemplate.executeWithoutResult(status -> {
+                CSVImport approved = csvImportRepository.findById(importId)
+                        .orElseThrow(() -> new RuntimeException("Import not found"));
+                approved.setStatus(CSVImport.Status.APPROVED);
+                csvImportRepository.save(approved);
+            });
             
             response.put("success", true);
-            response.put("processedCount", processedCount);
-            response.put("totalItems", items.size());
-            response.put("errors", errors);
-            response.put("message", "Import approved successfully. " + processedCount + " products created.");
+            response.put("processedCount", tally.processedCount);
+            response.put("createdCount", tally.processedCount - tally.updatedCount);
+            response.put("updatedCount", tally.updatedCount);
+            response.put("totalItems", totalItems);
+            response.put("resumed", resumed);
+            response.put("errors", tally.errors);
+            response.put("message", "Import approved successfully. " + (tally.processedCount - tally.updatedCount) +
+                    " products created, " + tally.updatedCount + " updated.");
             
         } catch (Exception e) {
             logger.error("Error approving import: {}", e.getMessage(), e);
+            if (claimed) {
+                releaseApproval(importId);
+            }
             response.put("success", false);
             response.put("error", "Failed to approve import: " + e.getMessage());
+        } finally {
+            approvalsInProgress.remove(importId);
         }
         
         return response;
     }
 
-    @Transactional
+    // Moves a PENDING import to APPROVING, or takes over an APPROVING one nobody is working on
+    private boolean claimApproval(Long importId, boolean resumed) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status -> resumed
+                ? csvImportRepository.takeOver(importId, CSVImport.Status.APPROVING, nodeId, now, now.minus(heartbeatTimeout))
+                : csvImportRepository.startApproval(importId, CSVImport.Status.PENDING, CSVImport.Status.APPROVING,
+                        nodeId, now));
+        return updated != null && updated == 1;
+    }
+
+    private void releaseApproval(Long importId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> csvImportRepository.release(importId, nodeId));
+        } catch (Exception e) {
+            logger.warn("Could not release import {}, other nodes can resume it after the heartbeat timeout: {}",
+                    importId, e.getMessage());
+        }
+    }
+
+    private void approveChunk(Long importId, List<Long> itemIds, ImportReferences references, ApprovalTally tally) {
+        try {
+            int[] updated = new int[1];
+            int processed = transactionTemplate.execute(status -> {
+                updated[0] = 0;
+                List<CSVImportItem> items = csvImportItemRepository.findAllById(itemIds);
+                for (CSVImportItem item : items) {
+                    if (applyItem(item, references)) {
+                        updated[0]++;
+                    }
+                    item.setStatus(CSVImportItem.Status.PROCESSED);
+                }
+                csvImportItemRepository.saveAll(items);
+                advanceCheckpoint(importId, itemIds, items.size());
+                return items.size();
+            });
+            tally.processedCount += processed;
+            tally.updatedCount += updated[0];
+        } catch (Exception chunkError) {
+            // Something in the chunk failed and rolled it back; redo it item by item so only the bad rows are rejected
+            logger.warn("Approval chunk of import {} failed ({}), retrying item by item", importId, chunkError.getMessage());
+            int processedBefore = tally.processedCount;
+            for (Long itemId : itemIds) {
+                approveSingleItem(itemId, references, tally);
+            }
+            int processed = tally.processedCount - processedBefore;
+            transactionTemplate.executeWithoutResult(status -> advanceCheckpoint(importId, itemIds, processed));
+        }
+    }
+
+    private void approveSingleItem(Long itemId, ImportReferences references, ApprovalTally tally) {
+        try {
+            // null when the item was already handled, otherwise whether it updated a product
+            Boolean updated = transactionTemplate.execute(status -> {
+                CSVImportItem item = csvImportItemRepository.findById(itemId)
+                        .orElseThrow(() -> new RuntimeException("Import item not found"));
+                if (item.getStatus() != CSVImportItem.Status.PENDING) {
+                    return null;
+                }
+                boolean wasUpdate = applyItem(item, references);
+                item.setStatus(CSVImportItem.Status.PROCESSED);
+                csvImportItemRepository.save(item);
+                return wasUpdate;
+            });
+            if (updated != null) {
+                tally.processedCount++;
+                if (updated) {
+                    tally.updatedCount++;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error processing import item {}: {}", itemId, e.getMessage());
+            String reason = e.getMessage();
+            transactionTemplate.executeWithoutResult(status ->
+                    csvImportItemRepository.findById(itemId).ifPresent(item -> {
+                        item.setStatus(CSVImportItem.Status.REJECTED);
+                        item.setErrorMessage(reason);
+                        csvImportItemRepository.save(item);
+                        if (tally.errors.size() < MAX_ERROR_DETAIL_LINES) {
+                            tally.errors.add("Item " + item.getName() + ": " + reason);
+                        }
+                    }));
+        }
+    }
+
+    private void advanceCheckpoint(Long importId, List<Long> itemIds, int created) {
+        CSVImport csvImport = csvImportRepository.findById(importId)
+                .orElseThrow(() -> new RuntimeException("Import not found"));
+        csvImport.setApprovalCheckpoint(itemIds.get(itemIds.size() - 1));
+        int processed = csvImport.getProcessedRecords() != null ? csvImport.getProcessedRecords() : 0;
+        csvImport.setProcessedRecords(processed + created);
+        csvImport.setHeartbeatAt(LocalDateTime.now());
+        csvImportRepository.save(csvImport);
+    }
+
+    /**
+     * Resolves every category and supplier named by the pending items of an import up front: missing
+     * categories are created in one batch, and each supplier is written at most once with the CSV
+     * contact details merged in (the last non-empty value in file order wins, as before).
+     */
+    private ImportReferences resolveReferences(Long importId) {
+        ImportReferences references = new ImportReferences();
+        CSVImportItem.Status pending = CSVImportItem.Status.PENDING;
+        
+        // Categories
+        Map<String, String> categoryNames = new HashMap<>();
+        for (String name : csvImportItemRepository.findDistinctCategoryNames(importId, pending)) {
+            if (name != null && !name.trim().isEmpty()) {
+                categoryNames.putIfAbsent(nameKey(name), name);
+            }
+        }
+        if (!categoryNames.isEmpty()) {
+            for (Category category : categoryService.findByNames(categoryNames.values())) {
+                references.categories.putIfAbsent(nameKey(category.getName()), category);
+            }
+            List<Category> missingCategories = new ArrayList<>();
+            categoryNames.forEach((key, name) -> {
+                if (!references.categories.containsKey(key)) {
+                    missingCategories.add(new Category(name, null));
+                }
+            });
+            for (Category category : categoryService.createCategories(missingCategories)) {
+                references.categories.put(nameKey(category.getName()), category);
+            }
+        }
+        
+        // Suppliers
+        Map<String, String> supplierNames = new HashMap<>();
+        for (String name : csvImportItemRepository.findDistinctSupplierNames(importId, pending)) {
+            if (name != null && !name.trim().isEmpty()) {
+                supplierNames.putIfAbsent(nameKey(name), name);
+            }
+        }
+        if (supplierNames.isEmpty()) {
+            return references;
+        }
+        Map<String, Supplier> suppliers = new HashMap<>();
+        for (Supplier supplier : supplierService.findByNames(supplierNames.values())) {
+            suppliers.putIfAbsent(nameKey(supplier.getName()), supplier);
+        }
+        Set<String> changed = new HashSet<>();
+        supplierNames.forEach((key, name) -> {
+            if (!suppliers.containsKey(key)) {
+                Supplier supplier = new Supplier();
+                supplier.setName(name);
+                suppliers.put(key, supplier);
+                changed.add(key);
+            }
+        });
+        // Update supplier details from CSV if present
+        for (Object[] row : csvImportItemRepository.findLatestSupplierEmails(importId, pending)) {
+            Supplier supplier = suppliers.get(nameKey((String) row[0]));
+            if (supplier != null && !Objects.equals(supplier.getEmail(), row[1])) {
+                supplier.setEmail((String) row[1]);
+                changed.add(nameKey((String) row[0]));
+            }
+        }
+        for (Object[] row : csvImportItemRepository.findLatestSupplierPhones(importId, pending)) {
+            Supplier supplier = suppliers.get(nameKey((String) row[0]));
+            if (supplier != null && !Objects.equals(supplier.getPhone(), row[1])) {
+                supplier.setPhone((String) row[1]);
+                changed.add(nameKey((String) row[0]));
+            }
+        }
+        for (Object[] row : csvImportItemRepository.findLatestSupplierAddresses(importId, pending)) {
+            Supplier supplier = suppliers.get(nameKey((String) row[0]));
+            if (supplier != null && !Objects.equals(supplier.getAddress(), row[1])) {
+                supplier.setAddress((String) row[1]);
+                changed.add(nameKey((String) row[0]));
+            }
+        }
+        
+        List<Supplier> toSave = new ArrayList<>();
+        suppliers.forEach((key, supplier) -> {
+            if (changed.contains(key)) {
+                toSave.add(supplier);
+            } else {
+                references.suppliers.put(key, supplier);
+            }
+        });
+        try {
+            for (Supplier saved : supplierService.saveSuppliers(toSave)) {
+                references.suppliers.put(nameKey(saved.getName()), saved);
+            }
+        } catch (Exception batchError) {
+            // One bad supplier (e.g. an invalid email) fails the batch; save them one by one and leave out the bad ones
+            logger.warn("Saving suppliers of import {} failed ({}), retrying one by one", importId, batchError.getMessage());
+            for (Supplier supplier : toSave) {
+                try {
+                    Supplier saved = supplierService.createSupplier(supplier);
+                    references.suppliers.put(nameKey(saved.getName()), saved);
+                } catch (Exception e) {
+                    logger.error("Could not save supplier {}: {}", supplier.getName(), e.getMessage());
+                }
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Applies an approved item to the catalog. Returns true when it updated an existing product
+     * (upsert imports) rather than creating one.
+     */
+    private boolean applyItem(CSVImportItem item, ImportReferences references) {
+        if (item.getAction() == CSVImportItem.Action.UPDATE) {
+            updateProductFromItem(item, references);
+            return true;
+        }
+        createProductFromItem(item, references);
+        return false;
+    }
+
+    private void createProductFromItem(CSVImportItem item, ImportReferences references) {
+        // Create product
+        Product product = new Product();
+        product.setSku(item.getSku());
+        copyItemFields(item, product, references);
+        product.setStatus(Product.Status.APPROVED); // Direct approval
+        product.setIsActive(true);
+        // Set quantity from CSV
+        product.setQuantity(item.getQuantity());
+        productService.createProduct(product);
+    }
+
+    // Stock is left alone on update; it is moved by sales and stock movements, not by catalog feeds
+    private void updateProductFromItem(CSVImportItem item, ImportReferences references) {
+        Product product = productService.getProductById(item.getProductId())
+                .orElseThrow(() -> new RuntimeException("Product not found for SKU: " + item.getSku()));
+        copyItemFields(item, product, references);
+        productService.saveImportedProduct(product);
+    }
+
+    private void copyItemFields(CSVImportItem item, Product product, ImportReferences references) {
+        Category category = null;
+        if (item.getCategoryName() != null && !item.getCategoryName().trim().isEmpty()) {
+            category = references.categories.get(nameKey(item.getCategoryName()));
+        }
+        
+        Supplier supplier = null;
+        if (item.getSupplierName() != null && !item.getSupplierName().trim().isEmpty()) {
+            supplier = references.suppliers.get(nameKey(item.getSupplierName()));
+            if (supplier == null) {
+                throw new RuntimeException("Supplier could not be saved: " + item.getSupplierName());
+            }
+        }
+        
+        product.setName(item.getName());
+        product.setDescription(item.getDescription());
+        product.setBarcode(item.getBarcode());
+        product.setCategory(category);
+        product.setSupplier(supplier);
+        product.setUnit(item.getUnit() != null ? item.getUnit() : "pcs");
+        product.setPurchasePrice(item.getPurchasePrice() != null ? item.getPurchasePrice() : java.math.BigDecimal.ZERO);
+        product.setMrp(item.getMrp() != null ? item.getMrp() : java.math.BigDecimal.ZERO);
+        product.setMinStockLevel(item.getMinStockLevel() != null ? item.getMinStockLevel() : 0);
+        product.setMaxStockLevel(item.getMaxStockLevel() != null ? item.getMaxStockLevel() : 1000);
+        product.setManufacturerCode(item.getManufacturerCode());
+        product.setBatchNumber(item.getBatchNumber());
+        product.setImportHash(item.getContentHash());
+        
+        // Set dates if provided
+        product.setExpiryDate(null);
+        if (item.getExpiryDate() != null && !item.getExpiryDate().trim().isEmpty()) {
+            product.setExpiryDate(CSVFieldParser.parseIsoDate(item.getExpiryDate()).atStartOfDay());
+        }
+        product.setManufacturerDate(null);
+        if (item.getManufacturerDate() != null && !item.getManufacturerDate().trim().isEmpty()) {
+            product.setManufacturerDate(CSVFieldParser.parseIsoDate(item.getManufacturerDate()).atStartOfDay());
+        }
+    }
+
+    // Categories and suppliers of one import, keyed by nameKey
+    private static class ImportReferences {
+        Map<String, Category> categories = new HashMap<>();
+        Map<String, Supplier> suppliers = new HashMap<>();
+    }
+
+    private static class ApprovalTally {
+        int processedCount;
+        int updatedCount;
+        List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Rejects an import and all of its pending items. Items are updated with set-based UPDATEs over
+     * id windows, each committed on its own, so the cost doesn't grow with a per-row round trip.
+     */
     public Map<String, Object> rejectImport(Long importId, String rejectedBy, String reason) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            CSVImport csvImport = csvImportRepository.findById(importId)
-                    .orElseThrow(() -> new RuntimeException("Import not found"));
+            // Update import status first so an approval can no longer pick the import up; the conditional
+            // update loses to an approval that claimed the import on any node
+            Integer rejected = transactionTemplate.execute(status -> csvImportRepository.updateStatus(importId,
+                    CSVImport.Status.PENDING, CSVImport.Status.REJECTED,
+                    summarize("Rejected by " + rejectedBy + ": " + reason)));
             
-            if (csvImport.getStatus() != CSVImport.Status.PENDING) {
+            if (rejected == null || rejected == 0) {
+                if (!csvImportRepository.existsById(importId)) {
+                    throw new RuntimeException("Import not found");
+                }
                 response.put("success", false);
                 response.put("error", "Import is not in pending status");
                 return response;
             }
             
-            // Update import status
-            csvImport.setStatus(CSVImport.Status.REJECTED);
-            csvImport.setErrorDetails("Rejected by " + rejectedBy + ": " + reason);
-            csvImportRepository.save(csvImport);
-            
             // Mark all pending items as rejected
-            List<CSVImportItem> pendingItems = csvImportItemRepository.findByCsvImportIdAndStatusOrderByCreatedAtAsc(
-                    importId, CSVImportItem.Status.PENDING);
-            
-            for (CSVImportItem item : pendingItems) {
-                item.setStatus(CSVImportItem.Status.REJECTED);
-                item.setErrorMessage("Import rejected: " + reason);
-                csvImportItemRepository.save(item);
+            int rejectedCount = 0;
+            Long minId = csvImportItemRepository.findMinIdByCsvImportIdAndStatus(importId, CSVImportItem.Status.PENDING);
+            Long maxId = csvImportItemRepository.findMaxIdByCsvImportIdAndStatus(importId, CSVImportItem.Status.PENDING);
+            if (minId != null) {
+                String errorMessage = "Import rejected: " + reason;
+                for (long from = minId; from <= maxId; from += rejectChunkSize) {
+                    long windowStart = from;
+                    long windowEnd = Math.min(from + rejectChunkSize - 1, maxId);
+                    Integer updated = transactionTemplate.execute(status ->
+                            csvImportItemRepository.updateStatusInIdRange(importId, CSVImportItem.Status.PENDING,
+                                    CSVImportItem.Status.REJECTED, errorMessage, windowStart, windowEnd));
+                    rejectedCount += updated != null ? updated : 0;
+                }
             }
             
             response.put("success", true);
+            response.put("rejectedCount", rejectedCount);
             response.put("message", "Import rejected successfully");
             
         } catch (Exception e) {
@@ -0,0 +1,224 @@
+package com.emart.inventory.service;
+
+import com.emart.inventory.entity.CSVImport;
+import com.emart.inventory.util.CSVHelper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports CSV feeds that suppliers drop into a spool directory (e.g. over SFTP), so nobody has to
+ * upload them by hand. The directory is watched with a {@link WatchService}. A file is picked up
+ * once it hasn't changed for {@code csv.spool.settle-seconds}, which skips files still being
+ * written. It is claimed with an atomic move into {@code processing/} and imported through
+ * {@link CSVImportJobService}, then moved to {@code archive/} or {@code failed/}. At most
+ * {@code csv.spool.parallelism} spool files are imported at once. The rest wait in the spool
+ * directory, so a large drop can't take over the import workers the API uploads use.
+ */
+@Service
+public class CSVSpoolIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CSVSpoolIngestionService.class);
+
+    @Autowired
+    private CSVImportJobService csvImportJobService;
+
+    @Value("${csv.spool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${csv.spool.directory:csv-spool}")
+    private String directory;
+
+    @Value("${csv.spool.parallelism:1}")
+    private int parallelism;
+
+    @Value("${csv.spool.settle-seconds:5}")
+    private long settleSeconds;
+
+    @Value("${csv.spool.mode:INSERT}")
+    private CSVImport.Mode mode;
+
+    @Value("${csv.spool.uploaded-by:spool}")
+    private String uploadedBy;
+
+    private Path incomingDir;
+    private Path processingDir;
+    private Path archiveDir;
+    private Path failedDir;
+
+    private Semaphore slots;
+    private WatchService watchService;
+    private volatile boolean running;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        incomingDir = Paths.get(directory).toAbsolutePath();
+        processingDir = Files.createDirectories(incomingDir.resolve("processing"));
+        archiveDir = Files.createDirectories(incomingDir.resolve("archive"));
+        failedDir = Files.createDirectories(incomingDir.resolve("failed"));
+        slots = new Semaphore(Math.max(1, parallelism));
+
+        // Files claimed before a restart never finished; hand them back so they are picked up again
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(processingDir)) {
+            for (Path claimed : leftovers) {
+                logger.warn("Requeueing spool file {} interrupted by a restart", claimed.getFileName());
+                Files.move(claimed, requeueTarget(claimed, originalName(claimed)));
+            }
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+        incomingDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+        running = true;
+        Thread watcher = new Thread(this::watch, "csv-spool-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching {} for CSV feeds (parallelism {}, mode {})", incomingDir, parallelism, mode);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        while (running) {
+            try {
+                scan();
+                // Events only wake the loop early; the timeout re-checks files that were still settling
+                WatchKey key = watchService.poll(settleSeconds, TimeUnit.SECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                logger.error("Error scanning spool directory {}: {}", incomingDir, e.getMessage(), e);
+                // Whatever broke the scan (a missing directory, permissions) is likely still broken right away
+                try {
+                    TimeUnit.SECONDS.sleep(Math.max(1, settleSeconds));
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void scan() throws IOException {
+        long settledBefore = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(settleSeconds);
+        List<Path> ready = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(incomingDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (Files.isRegularFile(file) && !name.startsWith(".") && CSVHelper.isSupportedUpload(name)
+                        && Files.getLastModifiedTime(file).toMillis() <= settledBefore) {
+                    ready.add(file);
+                }
+            }
+        }
+        // Oldest drops first
+        ready.sort(Comparator.comparing(CSVSpoolIngestionService::lastModified));
+
+        for (Path file : ready) {
+            if (!slots.tryAcquire()) {
+                return;
+            }
+            boolean submitted = false;
+            try {
+                submitted = claim(file);
+            } finally {
+                if (!submitted) {
+                    slots.release();
+                }
+            }
+        }
+    }
+
+    private boolean claim(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        // The prefix keeps names unique in processing/ and archive/ when a supplier resends a file
+        Path claimed = processingDir.resolve(System.currentTimeMillis() + "-" + fileName);
+        try {
+            Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false; // gone in the meantime
+        }
+
+        try {
+            Map<String, Object> response = csvImportJobService.submitFile(
+                    claimed, fileName, uploadedBy, mode, staged -> finish(claimed, staged));
+            if (Boolean.TRUE.equals(response.get("success"))) {
+                logger.info("Picked up spool file {} as CSV import {}", fileName, response.get("importId"));
+                return true;
+            }
+            logger.warn("Import queue is full, leaving spool file {} for the next scan", fileName);
+        } catch (Exception e) {
+            logger.error("Could not start import of spool file {}: {}", fileName, e.getMessage(), e);
+        }
+        Files.move(claimed, requeueTarget(claimed, fileName));
+        return false;
+    }
+
+    // The original name, unless a newer file arrived under it; then the claimed name, whose prefix keeps it unique
+    private Path requeueTarget(Path claimed, String originalName) {
+        Path target = incomingDir.resolve(originalName);
+        return Files.exists(target) ? incomingDir.resolve(claimed.getFileName()) : target;
+    }
+
+    private void finish(Path claimed, boolean staged) {
+        try {
+            Path target = (staged ? archiveDir : failedDir).resolve(claimed.getFileName());
+            Files.move(claimed, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.error("Could not move spool file {} out of processing: {}", claimed.getFileName(), e.getMessage());
+        } finally {
+            slots.release();
+        }
+    }
+
+    // Strips the claim prefix added in claim()
+    private static String originalName(Path claimed) {
+        String name = claimed.getFileName().toString();
+        int dash = name.indexOf('-');
+        return dash > 0 ? name.substring(dash + 1) : name;
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -2,10 +2,16 @@ package com.emart.inventory.service;
 
 import com.emart.inventory.entity.Category;
 import com.emart.inventory.repository.CategoryRepository;
+import com.emart.inventory.config.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +22,10 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'all'", sync = true)
     public List<Category> getAllCategories() {
         return categoryRepository.findAllByOrderByNameAsc();
     }
@@ -28,25 +38,57 @@ public class CategoryService {
         return categoryRepository.findByName(name);
     }
 
+    public List<Category> findByNames(Collection<String> names) {
+        return categoryRepository.findByNameIn(names);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public Category createCategory(Category category) {
         return categoryRepository.save(category);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
+    public List<Category> createCategories(List<Category> categories) {
+        return categoryRepository.saveAll(categories);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public Category updateCategory(Long id, Category categoryDetails) {
         return categoryRepository.findById(id)
                 .map(category -> {
                     category.setName(categoryDetails.getName());
                     category.setDescription(categoryDetails.getDescription());
-                    return categoryRepository.save(category);
+                    Category saved = categoryRepository.save(category);
+                    categoryChanged(id);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public void deleteCategory(Long id) {
         categoryRepository.findById(id)
                 .ifPresentOrElse(
-                        categoryRepository::delete,
+                        category -> {
+                            categoryRepository.delete(category);
+                            categoryChanged(id);
+                        },
                         () -> { throw new RuntimeException("Category not found with id: " + id); }
                 );
     }
+
+    // Products are deleted with their category, so the search index re-reads it once the change is committed
+    private void categoryChanged(Long id) {
+        Runnable update = () -> productSearchIndex.categoryChanged(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,419 @@
+package com.emart.inventory.service;
+
+import com.emart.inventory.config.CacheConfig;
+import com.emart.inventory.dto.ProductImportState;
+import com.emart.inventory.dto.ProductPatch;
+import com.emart.inventory.dto.ProductScanEntry;
+import com.emart.inventory.dto.ProductSearchEntry;
+import com.emart.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Applies partial updates to many products at once. Rows are validated and matched to products up front,
+ * with one IN query per lookup batch. Each chunk of rows then becomes a single {@code UPDATE} that sets
+ * every patched column through a {@code CASE} on the product id, committed on its own. No entity is
+ * loaded. Once every chunk has run, the search, suggestion and barcode indexes, the products-min payload
+ * and the SKU cache are refreshed once for the whole batch.
+ */
+@Service
+public class ProductBulkUpdateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkUpdateService.class);
+
+    // Maximum number of ids or SKUs bound into a single IN (...) lookup
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    // Column limits from the @Size constraints on Product; manufacturerCode has none and is a default VARCHAR(255).
+    // The description is a @Lob and isn't limited here, as on create and CSV import
+    private static final int NAME_MAX_LENGTH = 100;
+    private static final int UNIT_MAX_LENGTH = 20;
+    private static final int BATCH_NUMBER_MAX_LENGTH = 50;
+    private static final int DEFAULT_MAX_LENGTH = 255;
+
+    // Largest value a precision 10, scale 2 price column holds
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private ProductMinPayloadCache productMinPayloadCache;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Value("${product.bulk-update.chunk-size:500}")
+    private int chunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductBulkUpdateService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Updates the products the rows point at and returns one outcome per row, in row order: the row number,
+     * the product id and SKU it was given, and a {@code status} of {@code UPDATED}, {@code NOT_FOUND},
+     * {@code INVALID}, {@code DUPLICATE} or {@code FAILED}, with an {@code error} for anything but
+     * {@code UPDATED}.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_SKU, allEntries = true)
+    public Map<String, Object> updateProducts(List<ProductPatch> patches) {
+        long started = System.currentTimeMillis();
+        List<Row> rows = new ArrayList<>(patches.size());
+        for (int i = 0; i < patches.size(); i++) {
+            rows.add(validate(i + 1, patches.get(i)));
+        }
+        resolveProducts(rows);
+
+        // One product per batch, so the CASE of a chunk never names an id twice
+        Map<Long, Row> targets = new LinkedHashMap<>();
+        for (Row row : rows) {
+            if (row.status == null) {
+                Row first = targets.putIfAbsent(row.productId, row);
+                if (first != null) {
+                    row.fail("DUPLICATE", "Product " + row.productId + " is already updated by row " + first.number);
+                }
+            }
+        }
+
+        List<Row> pending = new ArrayList<>(targets.values());
+        List<Long> updatedIds = new ArrayList<>(pending.size());
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Row> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyChunk(chunk));
+                for (Row row : chunk) {
+                    row.status = "UPDATED";
+                    updatedIds.add(row.productId);
+                }
+            } catch (Exception chunkError) {
+                // Something in the chunk failed and rolled it back; redo it row by row so only the bad rows fail
+                logger.warn("Bulk update chunk of {} products failed ({}), retrying row by row",
+                        chunk.size(), chunkError.getMessage());
+                for (Row row : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> applyChunk(List.of(row)));
+                        row.status = "UPDATED";
+                        updatedIds.add(row.productId);
+                    } catch (Exception e) {
+                        logger.error("Bulk update of product {} failed: {}", row.productId, e.getMessage());
+                        row.fail("FAILED", "Update failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        if (!updatedIds.isEmpty()) {
+            catalogChanged(updatedIds, rows);
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("row", row.number);
+            result.put("id", row.productId != null ? row.productId : row.patch.getId());
+            if (row.patch.getSku() != null) {
+                result.put("sku", row.patch.getSku());
+            }
+            result.put("status", row.status);
+            if (row.error != null) {
+                result.put("error", row.error);
+            }
+            results.add(result);
+        }
+        logger.info("Bulk update of {} rows updated {} products in {} ms",
+                rows.size(), updatedIds.size(), System.currentTimeMillis() - started);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", rows.size());
+        response.put("updated", updatedIds.size());
+        response.put("failed", rows.size() - updatedIds.size());
+        response.put("results", results);
+        return response;
+    }
+
+    private static Row validate(int number, ProductPatch patch) {
+        Row row = new Row(number, patch);
+        if (patch == null) {
+            row.patch = new ProductPatch();
+            row.fail("INVALID", "Empty row");
+            return row;
+        }
+        boolean bySku = patch.getSku() != null && !patch.getSku().isBlank();
+        if ((patch.getId() == null) == !bySku) {
+            row.fail("INVALID", "Give either id or sku");
+            return row;
+        }
+        if (patch.getName() != null && patch.getName().isBlank()) {
+            row.fail("INVALID", "Name cannot be blank");
+            return row;
+        }
+        // The UPDATE bypasses bean validation, so the column limits of Product are checked here
+        String lengthError = checkLength("name", Field.NAME.value(row), NAME_MAX_LENGTH);
+        if (lengthError == null) {
+            lengthError = checkLength("unit", Field.UNIT.value(row), UNIT_MAX_LENGTH);
+        }
+        if (lengthError == null) {
+            lengthError = checkLength("manufacturerCode", Field.MANUFACTURER_CODE.value(row), DEFAULT_MAX_LENGTH);
+        }
+        if (lengthError == null) {
+            lengthError = checkLength("batchNumber", Field.BATCH_NUMBER.value(row), BATCH_NUMBER_MAX_LENGTH);
+        }
+        if (lengthError != null) {
+            row.fail("INVALID", lengthError);
+            return row;
+        }
+        String priceError = checkPrice("purchasePrice", patch.getPurchasePrice());
+        if (priceError == null) {
+            priceError = checkPrice("mrp", patch.getMrp());
+        }
+        if (priceError != null) {
+            row.fail("INVALID", priceError);
+            return row;
+        }
+        if ((patch.getMinStockLevel() != null && patch.getMinStockLevel() < 0)
+                || (patch.getMaxStockLevel() != null && patch.getMaxStockLevel() < 0)) {
+            row.fail("INVALID", "Stock levels cannot be negative");
+            return row;
+        }
+        if (patch.getMinStockLevel() != null && patch.getMaxStockLevel() != null
+                && patch.getMinStockLevel() > patch.getMaxStockLevel()) {
+            row.fail("INVALID", "minStockLevel is above maxStockLevel");
+            return row;
+        }
+        try {
+            row.expiryDate = parseDate(patch.getExpiryDate());
+            row.manufacturerDate = parseDate(patch.getManufacturerDate());
+        } catch (DateTimeParseException e) {
+            row.fail("INVALID", "Dates must be yyyy-MM-dd");
+            return row;
+        }
+        for (Field field : Field.values()) {
+            if (field.value(row) != null) {
+                return row;
+            }
+        }
+        row.fail("INVALID", "Nothing to update");
+        return row;
+    }
+
+    private static String checkLength(String name, Object value, int maxLength) {
+        return value != null && value.toString().length() > maxLength
+                ? name + " is longer than " + maxLength + " characters" : null;
+    }
+
+    private static String checkPrice(String name, BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        if (price.signum() < 0) {
+            return name + " cannot be negative";
+        }
+        if (price.scale() > 2 && price.stripTrailingZeros().scale() > 2) {
+            return name + " has more than 2 decimals";
+        }
+        if (price.compareTo(MAX_PRICE) > 0) {
+            return name + " is above " + MAX_PRICE;
+        }
+        return null;
+    }
+
+    private static LocalDateTime parseDate(String date) {
+        return date == null || date.isBlank() ? null : LocalDate.parse(date.trim()).atStartOfDay();
+    }
+
+    // Matches every valid row to an active product; ids and SKUs are checked one IN query per batch
+    private void resolveProducts(List<Row> rows) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Set<String> skus = new LinkedHashSet<>();
+        for (Row row : rows) {
+            if (row.status == null) {
+                if (row.patch.getId() != null) {
+                    ids.add(row.patch.getId());
+                } else {
+                    skus.add(row.patch.getSku().trim());
+                }
+            }
+        }
+        Set<Long> activeIds = new LinkedHashSet<>(inBatches(new ArrayList<>(ids), productRepository::findActiveIdsIn));
+        // The sku column is case-insensitive, so the match is too
+        Map<String, Long> idsBySku = new HashMap<>();
+        for (ProductImportState state : productService.findImportStates(skus)) {
+            idsBySku.put(state.getSku().toLowerCase(Locale.ROOT), state.getId());
+        }
+
+        for (Row row : rows) {
+            if (row.status != null) {
+                continue;
+            }
+            if (row.patch.getId() != null) {
+                if (activeIds.contains(row.patch.getId())) {
+                    row.productId = row.patch.getId();
+                } else {
+                    row.fail("NOT_FOUND", "No active product with id " + row.patch.getId());
+                }
+            } else {
+                row.productId = idsBySku.get(row.patch.getSku().trim().toLowerCase(Locale.ROOT));
+                if (row.productId == null) {
+                    row.fail("NOT_FOUND", "No active product with SKU " + row.patch.getSku());
+                }
+            }
+        }
+    }
+
+    private void applyChunk(List<Row> chunk) {
+        StringBuilder jpql = new StringBuilder("UPDATE Product p SET p.updatedAt = :updatedAt, p.importHash = NULL");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("updatedAt", LocalDateTime.now());
+        for (Field field : Field.values()) {
+            StringBuilder cases = new StringBuilder();
+            for (int i = 0; i < chunk.size(); i++) {
+                Object value = field.value(chunk.get(i));
+                if (value != null) {
+                    String parameter = field.property + i;
+                    cases.append(" WHEN :id").append(i).append(" THEN :").append(parameter);
+                    parameters.put(parameter, value);
+                }
+            }
+            if (cases.length() > 0) {
+                jpql.append(", p.").append(field.property).append(" = CASE p.id").append(cases)
+                        .append(" ELSE p.").append(field.property).append(" END");
+            }
+        }
+        // Every row patches at least one field, so every id is bound by some CASE
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ids.add(chunk.get(i).productId);
+            parameters.put("id" + i, chunk.get(i).productId);
+        }
+        jpql.append(" WHERE p.isActive = true AND p.id IN :ids");
+        parameters.put("ids", ids);
+
+        Query update = entityManager.createQuery(jpql.toString());
+        parameters.forEach(update::setParameter);
+        int updated = update.executeUpdate();
+        if (updated != chunk.size()) {
+            // A product was deleted since it was looked up; roll the chunk back rather than report it as updated
+            throw new IllegalStateException(updated + " of " + chunk.size() + " products are still active");
+        }
+    }
+
+    // Refreshes everything derived from the catalog once, reading the changed products back as projections
+    private void catalogChanged(List<Long> updatedIds, List<Row> rows) {
+        boolean namesChanged = false;
+        boolean scanFieldsChanged = false;
+        for (Row row : rows) {
+            if ("UPDATED".equals(row.status)) {
+                namesChanged |= row.patch.getName() != null;
+                scanFieldsChanged |= row.patch.getName() != null || row.patch.getMrp() != null || row.patch.getUnit() != null;
+            }
+        }
+        if (namesChanged) {
+            for (ProductSearchEntry entry : inBatches(updatedIds, productRepository::findSearchEntriesByIdIn)) {
+                productSearchIndex.put(entry);
+            }
+        }
+        if (scanFieldsChanged) {
+            for (ProductScanEntry entry : inBatches(updatedIds, productRepository::findScanEntriesByIdIn)) {
+                barcodeIndex.put(entry);
+            }
+        }
+        productSuggestIndex.catalogChanged();
+        productMinPayloadCache.catalogChanged();
+    }
+
+    private static <K, T> List<T> inBatches(List<K> keys, Function<List<K>, List<T>> query) {
+        List<T> results = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += LOOKUP_BATCH_SIZE) {
+            results.addAll(query.apply(keys.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, keys.size()))));
+        }
+        return results;
+    }
+
+    // The patchable columns, by entity property
+    private enum Field {
+        NAME("name", row -> trimmed(row.patch.getName())),
+        DESCRIPTION("description", row -> row.patch.getDescription()),
+        UNIT("unit", row -> trimmed(row.patch.getUnit())),
+        PURCHASE_PRICE("purchasePrice", row -> row.patch.getPurchasePrice()),
+        MRP("mrp", row -> row.patch.getMrp()),
+        MIN_STOCK_LEVEL("minStockLevel", row -> row.patch.getMinStockLevel()),
+        MAX_STOCK_LEVEL("maxStockLevel", row -> row.patch.getMaxStockLevel()),
+        EXPIRY_DATE("expiryDate", row -> row.expiryDate),
+        MANUFACTURER_DATE("manufacturerDate", row -> row.manufacturerDate),
+        MANUFACTURER_CODE("manufacturerCode", row -> trimmed(row.patch.getManufacturerCode())),
+        BATCH_NUMBER("batchNumber", row -> trimmed(row.patch.getBatchNumber()));
+
+        final String property;
+        private final Function<Row, Object> value;
+
+        Field(String property, Function<Row, Object> value) {
+            this.property = property;
+            this.value = value;
+        }
+
+        Object value(Row row) {
+            return value.apply(row);
+        }
+
+        private static String trimmed(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private static final class Row {
+        final int number;
+        ProductPatch patch;
+        LocalDateTime expiryDate;
+        LocalDateTime manufacturerDate;
+        Long productId;
+        String status;
+        String error;
+
+        Row(int number, ProductPatch patch) {
+            this.number = number;
+            this.patch = patch;
+        }
+
+        void fail(String status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.emart.inventory.service;
+
+import com.emart.inventory.dto.ProductListView;
+import com.emart.inventory.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code /api/products-min} response, serialized once per catalog version. {@link ProductService} bumps
+ * the version after every committed product write. Until the next bump, every call gets the same bytes,
+ * plain or gzipped, and the same ETag, without touching the database.
+ * <p>
+ * The payload is a JSON array with one object per active product, in id order:
+ * <pre>
+ * [{"id": 1, "name": "Basmati Rice 5kg", "expiryDate": "2025-12-31T00:00:00",
+ *   "manufacturerDate": "2024-01-01T00:00:00", "manufacturerCode": "12345"}, ...]
+ * </pre>
+ * The dates are written by the application's ObjectMapper and are null when not set.
+ */
+@Service
+public class ProductMinPayloadCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductMinPayloadCache.class);
+
+    // Versions restart at 0 with the JVM; the boot id keeps an ETag from before a restart from matching
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Payload payload;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ProductMinPayloadCache(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Called once a product write has committed.
+     */
+    public void catalogChanged() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * The payload of the current catalog version, serialized on the first call after a change.
+     */
+    public Payload current() {
+        Payload cached = payload;
+        if (cached != null && cached.version == version.get()) {
+            return cached;
+        }
+        synchronized (this) {
+            // Read the version before the products, so a write during the build makes the next call rebuild
+            long current = version.get();
+            if (payload == null || payload.version != current) {
+                payload = build(current);
+            }
+            return payload;
+        }
+    }
+
+    private Payload build(long version) {
+        long started = System.currentTimeMillis();
+        ByteArrayOutputStream json = new ByteArrayOutputStream(64 * 1024);
+        int count = transactionTemplate.execute(status -> {
+            int written = 0;
+            try (Stream<ProductListView> rows = productRepository.streamActiveListViews();
+                 JsonGenerator generator = objectMapper.createGenerator(json)) {
+                generator.writeStartArray();
+                for (ProductListView row : (Iterable<ProductListView>) rows::iterator) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", row.getId());
+                    generator.writeStringField("name", row.getName());
+                    // Through the mapper, so dates keep the format the endpoint always used
+                    generator.writeObjectField("expiryDate", row.getExpiryDate());
+                    generator.writeObjectField("manufacturerDate", row.getManufacturerDate());
+                    generator.writeStringField("manufacturerCode", row.getManufacturerCode());
+                    generator.writeEndObject();
+                    written++;
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return written;
+        });
+
+        byte[] plain = json.toByteArray();
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(plain.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.debug("Serialized {} products for /api/products-min version {} ({} bytes, {} gzipped) in {} ms",
+                count, version, plain.length, gzipped.size(), System.currentTimeMillis() - started);
+        // Weak, because the plain and gzipped bytes share it
+        return new Payload(version, "W/\"" + bootId + "-" + version + "\"", plain, gzipped.toByteArray());
+    }
+
+    public static final class Payload {
+        private final long version;
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzipJson;
+
+        Payload(long version, String etag, byte[] json, byte[] gzipJson) {
+            this.version = version;
+            this.etag = etag;
+            this.json = json;
+            this.gzipJson = gzipJson;
+        }
+
+        public String getEtag() { return etag; }
+
+        public byte[] getJson() { return json; }
+
+        public byte[] getGzipJson() { return gzipJson; }
+    }
+}
@@ -0,0 +1,442 @@
+package com.emart.inventory.service;
+
+import com.emart.inventory.dto.ProductSearchEntry;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted trigram index over product name, SKU and barcode, so product search doesn't run a
+ * {@code LIKE '%term%'} scan of the products table on every keystroke. Each product gets an ordinal,
+ * assigned in creation order. Each trigram maps to the sorted ordinals of the products that contain it.
+ * A search intersects the postings of the term's trigrams, walking them newest first, and checks the
+ * few candidates left against the stored text. Only the requested page is collected.
+ * <p>
+ * Terms shorter than a trigram have no postings to look up. They are matched by scanning the text of every
+ * entry, so their cost grows with the catalog rather than with the number of matches.
+ * <p>
+ * The index is loaded from the database once the application is ready. After that, {@link ProductService}
+ * keeps it current as products are created, updated and deleted, and {@link CategoryService} as categories
+ * change. Searches use the database until the load has finished. Deleted products stay in the index,
+ * because the ADMIN product list still shows them; only products deleted with their category are dropped.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // Terms shorter than a trigram can't use the postings and are matched by scanning the stored text
+    private static final int GRAM = 3;
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private static final long NO_CATEGORY = -1;
+
+    // The order of the product list; ordinals follow creation time, so the index pages in it for free
+    private static final Sort NEWEST_FIRST = Sort.by("createdAt").descending();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${product.search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Docs docs = new Docs();
+    // Changes committed while the initial load runs, applied on top of it
+    private final List<Consumer<Docs>> pending = new ArrayList<>();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        loading = true;
+        Thread loader = new Thread(this::loadFromDatabase, "product-search-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void loadFromDatabase() {
+        long started = System.currentTimeMillis();
+        try {
+            List<ProductSearchEntry> entries = readEntries(productRepository);
+            load(entries);
+            logger.info("Product search index loaded with {} products in {} ms",
+                    entries.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Could not load product search index, searches will query the database: {}", e.getMessage(), e);
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                pending.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Every product, walked in keyset pages so no single query holds the whole table
+    static List<ProductSearchEntry> readEntries(ProductRepository productRepository) {
+        List<ProductSearchEntry> entries = new ArrayList<>();
+        PageRequest batch = PageRequest.of(0, LOAD_BATCH_SIZE);
+        Long afterId = 0L;
+        List<ProductSearchEntry> page;
+        do {
+            page = productRepository.findSearchEntriesAfter(afterId, batch);
+            entries.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_BATCH_SIZE);
+        return entries;
+    }
+
+    /**
+     * Replaces the index contents with the given products, plus any changes committed while they were read.
+     */
+    public void load(List<ProductSearchEntry> entries) {
+        List<ProductSearchEntry> ordered = new ArrayList<>(entries);
+        ordered.sort(Comparator.comparing(ProductSearchEntry::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ProductSearchEntry::getId));
+        Docs loaded = new Docs();
+        for (ProductSearchEntry entry : ordered) {
+            loaded.put(new Entry(entry.getId(), entry.getName(), entry.getSku(), entry.getBarcode(),
+                    entry.getCategoryId(), !Boolean.FALSE.equals(entry.getIsActive())));
+        }
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Docs> change : pending) {
+                change.accept(loaded);
+            }
+            pending.clear();
+            docs = loaded;
+            loading = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index can answer a search in the requested order. It only pages newest first.
+     */
+    public boolean supports(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        return ready && (sort.isUnsorted() || sort.equals(NEWEST_FIRST));
+    }
+
+    /**
+     * Adds or updates the product. Changes made before the initial load starts are ignored, the load reads them.
+     */
+    public void put(Product product) {
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        put(new Entry(product.getId(), product.getName(), product.getSku(), product.getBarcode(),
+                categoryId, !Boolean.FALSE.equals(product.getIsActive())));
+    }
+
+    /**
+     * Same as {@link #put(Product)}, for products changed by a bulk update and read back as projections.
+     */
+    public void put(ProductSearchEntry product) {
+        put(new Entry(product.getId(), product.getName(), product.getSku(), product.getBarcode(),
+                product.getCategoryId(), !Boolean.FALSE.equals(product.getIsActive())));
+    }
+
+    private void put(Entry entry) {
+        apply(index -> index.put(entry));
+    }
+
+    /**
+     * Re-reads the products of a category after the category was updated or deleted. Deleting a category
+     * deletes its products with it, so entries of the category that are no longer in the database are dropped.
+     */
+    public void categoryChanged(Long categoryId) {
+        if (!ready && !loading) {
+            return;
+        }
+        List<ProductSearchEntry> products = productRepository.findSearchEntriesByCategoryId(categoryId);
+        Set<Long> kept = new HashSet<>();
+        List<Entry> entries = new ArrayList<>(products.size());
+        for (ProductSearchEntry product : products) {
+            kept.add(product.getId());
+            entries.add(new Entry(product.getId(), product.getName(), product.getSku(), product.getBarcode(),
+                    product.getCategoryId(), !Boolean.FALSE.equals(product.getIsActive())));
+        }
+        apply(index -> {
+            index.removeCategory(categoryId, kept);
+            entries.forEach(index::put);
+        });
+    }
+
+    private void apply(Consumer<Docs> change) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                change.accept(docs);
+            } else if (loading) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the products whose name, SKU or barcode contains the term, ignoring case, newest first.
+     * Terms that match a large part of the catalog still visit every match, to count the total.
+     *
+     * @param activeOnly leave out deleted products
+     * @param categoryId only products in this category, or null for all
+     */
+    public Page<Long> search(String term, boolean activeOnly, Long categoryId, Pageable pageable) {
+        List<Long> ids = new ArrayList<>(pageable.getPageSize());
+        long total;
+        lock.readLock().lock();
+        try {
+            total = docs.search(term.toLowerCase(Locale.ROOT), activeOnly, categoryId,
+                    pageable.getOffset(), pageable.getPageSize(), ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    private static final class Entry {
+        final long id;
+        final String text;
+        final long categoryId;
+        final boolean active;
+
+        Entry(Long id, String name, String sku, String barcode, Long categoryId, boolean active) {
+            this.id = id;
+            // Newline-separated, so a term can only match across two fields if it contains a newline itself
+            this.text = (nullToEmpty(name) + '\n' + nullToEmpty(sku) + '\n' + nullToEmpty(barcode)).toLowerCase(Locale.ROOT);
+            this.categoryId = categoryId != null ? categoryId : NO_CATEGORY;
+            this.active = active;
+        }
+
+        private static String nullToEmpty(String value) {
+            return value != null ? value : "";
+        }
+    }
+
+    // Index contents; guarded by the lock of the enclosing index
+    private static final class Docs {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private long[] ids = new long[1024];
+        private String[] texts = new String[1024];
+        private long[] categoryIds = new long[1024];
+        private boolean[] active = new boolean[1024];
+        private boolean[] removed = new boolean[1024];
+        private int size;
+
+        void put(Entry entry) {
+            Integer existing = ordinals.get(entry.id);
+            int ordinal;
+            if (existing == null) {
+                if (size == ids.length) {
+                    int capacity = size * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    texts = Arrays.copyOf(texts, capacity);
+                    categoryIds = Arrays.copyOf(categoryIds, capacity);
+                    active = Arrays.copyOf(active, capacity);
+                    removed = Arrays.copyOf(removed, capacity);
+                }
+                ordinal = size++;
+                ordinals.put(entry.id, ordinal);
+                ids[ordinal] = entry.id;
+                // New ordinals are the largest, so appending keeps every postings list sorted
+                for (long gram : grams(entry.text)) {
+                    postings.computeIfAbsent(gram, g -> new Postings()).append(ordinal);
+                }
+            } else {
+                // Updates keep their ordinal, and with it the product's place in the newest-first order
+                ordinal = existing;
+                if (!texts[ordinal].equals(entry.text)) {
+                    long[] before = grams(texts[ordinal]);
+                    long[] after = grams(entry.text);
+                    for (long gram : before) {
+                        if (Arrays.binarySearch(after, gram) < 0) {
+                            Postings list = postings.get(gram);
+                            list.remove(ordinal);
+                            if (list.size == 0) {
+                                postings.remove(gram);
+                            }
+                        }
+                    }
+                    for (long gram : after) {
+                        if (Arrays.binarySearch(before, gram) < 0) {
+                            postings.computeIfAbsent(gram, g -> new Postings()).insert(ordinal);
+                        }
+                    }
+                }
+            }
+            texts[ordinal] = entry.text;
+            categoryIds[ordinal] = entry.categoryId;
+            active[ordinal] = entry.active;
+        }
+
+        // Drops the category's entries whose products aren't in the given set
+        void removeCategory(long categoryId, Set<Long> kept) {
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                if (!removed[ordinal] && categoryIds[ordinal] == categoryId && !kept.contains(ids[ordinal])) {
+                    remove(ordinal);
+                }
+            }
+        }
+
+        // The slot stays behind, empty and never matched, so no other ordinal has to move
+        private void remove(int ordinal) {
+            ordinals.remove(ids[ordinal]);
+            for (long gram : grams(texts[ordinal])) {
+                Postings list = postings.get(gram);
+                list.remove(ordinal);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+            texts[ordinal] = "";
+            removed[ordinal] = true;
+        }
+
+        long search(String needle, boolean activeOnly, Long categoryId, long skip, int limit, List<Long> out) {
+            long total = 0;
+            if (needle.length() < GRAM) {
+                for (int ordinal = size - 1; ordinal >= 0; ordinal--) {
+                    if (accepts(ordinal, activeOnly, categoryId) && texts[ordinal].contains(needle)) {
+                        if (total >= skip && out.size() < limit) {
+                            out.add(ids[ordinal]);
+                        }
+                        total++;
+                    }
+                }
+                return total;
+            }
+
+            long[] grams = grams(needle);
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return 0;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt((Postings list) -> list.size));
+            // Walk the shortest list newest first; the others are probed below a bound that only shrinks
+            int[] bounds = new int[lists.length];
+            for (int j = 1; j < lists.length; j++) {
+                bounds[j] = lists[j].size;
+            }
+            // A term of exactly one trigram matches wherever that trigram occurs
+            boolean verify = needle.length() > GRAM;
+            Postings shortest = lists[0];
+            candidates:
+            for (int i = shortest.size - 1; i >= 0; i--) {
+                int ordinal = shortest.ords[i];
+                for (int j = 1; j < lists.length; j++) {
+                    int at = Arrays.binarySearch(lists[j].ords, 0, bounds[j], ordinal);
+                    bounds[j] = at >= 0 ? at : -at - 1;
+                    if (at < 0) {
+                        continue candidates;
+                    }
+                }
+                if (!accepts(ordinal, activeOnly, categoryId) || verify && !texts[ordinal].contains(needle)) {
+                    continue;
+                }
+                if (total >= skip && out.size() < limit) {
+                    out.add(ids[ordinal]);
+                }
+                total++;
+            }
+            return total;
+        }
+
+        private boolean accepts(int ordinal, boolean activeOnly, Long categoryId) {
+            return !removed[ordinal] && (!activeOnly || active[ordinal])
+                    && (categoryId == null || categoryIds[ordinal] == categoryId);
+        }
+
+        // Sorted, distinct trigrams of the text, three chars packed into a long
+        private static long[] grams(String text) {
+            int count = text.length() - GRAM + 1;
+            if (count <= 0) {
+                return new long[0];
+            }
+            long[] grams = new long[count];
+            for (int i = 0; i < count; i++) {
+                grams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+            }
+            Arrays.sort(grams);
+            int distinct = 1;
+            for (int i = 1; i < count; i++) {
+                if (grams[i] != grams[distinct - 1]) {
+                    grams[distinct++] = grams[i];
+                }
+            }
+            return Arrays.copyOf(grams, distinct);
+        }
+    }
+
+    // Sorted ordinals of the products containing one trigram
+    private static final class Postings {
+        private int[] ords = new int[4];
+        private int size;
+
+        void append(int ordinal) {
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+            }
+            ords[size++] = ordinal;
+        }
+
+        void insert(int ordinal) {
+            int at = Arrays.binarySearch(ords, 0, size, ordinal);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+            }
+            System.arraycopy(ords, at, ords, at + 1, size - at);
+            ords[at] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int at = Arrays.binarySearch(ords, 0, size, ordinal);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(ords, at + 1, ords, at, size - at - 1);
+            size--;
+        }
+    }
+}
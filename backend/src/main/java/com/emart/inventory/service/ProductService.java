@@ -1,23 +1,66 @@
 package com.emart.inventory.service;
 
+import com.emart.inventory.dto.ProductImportState;
+import com.emart.inventory.dto.ProductListView;
 import com.emart.inventory.entity.Product;
 import com.emart.inventory.repository.ProductRepository;
+import com.emart.inventory.util.SeekCursor;
+import com.opencsv.CSVWriter;
+import com.emart.inventory.config.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ProductService {
 
+    // Maximum number of SKUs bound into a single IN (...) lookup
+    private static final int SKU_LOOKUP_BATCH_SIZE = 1000;
+
+    private static final String[] EXPORT_HEADER = {"ID", "Name", "SKU", "Description", "Unit", "Purchase Price", "MRP",
+            "Min Stock", "Max Stock", "Expiry Date", "Manufacturer Date", "Manufacturer Code"};
+
+    // Export rows written between flushes, one cursor fetch's worth
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private ProductMinPayloadCache productMinPayloadCache;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
     public List<Product> getAllProducts() {
         return productRepository.findByIsActiveTrue();
     }
@@ -31,6 +74,9 @@ public class ProductService {
     }
 
     public Page<Product> searchProducts(String search, Long categoryId, Pageable pageable) {
+        if (search != null && !search.trim().isEmpty() && productSearchIndex.supports(pageable)) {
+            return findIndexed(productSearchIndex.search(search.trim(), true, categoryId, pageable));
+        }
         if (search != null && !search.trim().isEmpty() && categoryId != null) {
             return productRepository.findByIsActiveTrueAndNameContainingIgnoreCaseAndCategoryId(
                     search.trim(), categoryId, pageable);
@@ -45,6 +91,9 @@ public class ProductService {
     }
 
     public Page<Product> searchProductsAll(String search, Long categoryId, Pageable pageable) {
+        if (search != null && !search.trim().isEmpty() && productSearchIndex.supports(pageable)) {
+            return findIndexed(productSearchIndex.search(search.trim(), false, categoryId, pageable));
+        }
         if (search != null && !search.trim().isEmpty() && categoryId != null) {
             return productRepository.findByNameContainingIgnoreCaseAndCategoryId(
                 search.trim(), categoryId, pageable);
@@ -58,18 +107,106 @@ public class ProductService {
         }
     }
 
+    // Loads a page of ids found by the search index, keeping the index's order
+    private Page<Product> findIndexed(Page<Long> ids) {
+        List<Product> products = inIdOrder(ids.getContent(), productRepository.findAllById(ids.getContent()), Product::getId);
+        return new PageImpl<>(products, ids.getPageable(), ids.getTotalElements());
+    }
+
+    private static <T> List<T> inIdOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Active products as the product list shows them, in one joined query per page.
+     */
+    public Page<ProductListView> getProductList(Pageable pageable) {
+        return productRepository.findActiveListViews(pageable);
+    }
+
+    public Page<ProductListView> getProductListByStatus(Product.Status status, Pageable pageable) {
+        return productRepository.findActiveListViewsByStatus(status, pageable);
+    }
+
+    /**
+     * The product list search of ADMINs, deleted products included. Like {@link #searchProductsAll}, but
+     * loading list rows instead of entities.
+     */
+    public Page<ProductListView> searchProductList(String search, Long categoryId, Pageable pageable) {
+        String name = search != null && !search.trim().isEmpty() ? search.trim() : null;
+        if (name != null && productSearchIndex.supports(pageable)) {
+            Page<Long> ids = productSearchIndex.search(name, false, categoryId, pageable);
+            List<ProductListView> rows = ids.getContent().isEmpty()
+                    ? List.of()
+                    : inIdOrder(ids.getContent(), productRepository.findListViewsByIdIn(ids.getContent()), ProductListView::getId);
+            return new PageImpl<>(rows, pageable, ids.getTotalElements());
+        }
+        return productRepository.searchListViews(name, categoryId, pageable);
+    }
+
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id).filter(Product::getIsActive);
     }
 
+    // Only the SKU-to-id lookup is cached; the product is loaded fresh, so a caller that changes it can't
+    // change what others are served
     public Optional<Product> getProductBySku(String sku) {
-        return productRepository.findBySku(sku).filter(Product::getIsActive);
+        return productRepository.findActiveIdBySku(sku).flatMap(this::getProductById);
     }
 
+    /**
+     * Returns which of the given SKUs already belong to an active product, using one IN query per
+     * {@value #SKU_LOOKUP_BATCH_SIZE} SKUs instead of a lookup per SKU.
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findExistingSkus(Collection<String> skus) {
+        return new HashSet<>(findBySkuBatches(skus, productRepository::findActiveSkusIn));
+    }
+
+    /**
+     * Id and import hash of the active products with the given SKUs, for upsert imports.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductImportState> findImportStates(Collection<String> skus) {
+        return findBySkuBatches(skus, productRepository::findImportStatesBySkuIn);
+    }
+
+    private <T> List<T> findBySkuBatches(Collection<String> skus, Function<List<String>, List<T>> query) {
+        List<T> results = new ArrayList<>();
+        List<String> batch = new ArrayList<>(Math.min(skus.size(), SKU_LOOKUP_BATCH_SIZE));
+        for (String sku : skus) {
+            batch.add(sku);
+            if (batch.size() == SKU_LOOKUP_BATCH_SIZE) {
+                results.addAll(query.apply(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(query.apply(batch));
+        }
+        return results;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_SKU, allEntries = true)
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        catalogChanged(saved);
+        return saved;
+    }
+
+    // Saves a product changed by an upsert import; unlike updateProduct it keeps the import hash
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_SKU, allEntries = true)
+    public Product saveImportedProduct(Product product) {
+        Product saved = productRepository.save(product);
+        catalogChanged(saved);
+        return saved;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_SKU, allEntries = true)
     public Product updateProduct(Long id, Product productDetails) {
         return productRepository.findById(id)
                 .filter(Product::getIsActive)
@@ -89,21 +226,92 @@ public class ProductService {
                     product.setManufacturerDate(productDetails.getManufacturerDate());
                     product.setManufacturerCode(productDetails.getManufacturerCode());
                     product.setBatchNumber(productDetails.getBatchNumber());
-                    return productRepository.save(product);
+                    // Edited by hand, so the next upsert row for this SKU no longer counts as unchanged
+                    product.setImportHash(null);
+                    Product saved = productRepository.save(product);
+                    catalogChanged(saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_SKU, allEntries = true)
     public void deleteProduct(Long id) {
         productRepository.findById(id)
                 .filter(Product::getIsActive)
                 .map(product -> {
                     product.setIsActive(false);
-                    return productRepository.save(product);
+                    Product saved = productRepository.save(product);
+                    catalogChanged(saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 
+    // Search and suggestions see a change once it commits, so rolled back saves never show up there
+    private void catalogChanged(Product product) {
+        Runnable update = () -> {
+            productSearchIndex.put(product);
+            productSuggestIndex.catalogChanged();
+            productMinPayloadCache.catalogChanged();
+            barcodeIndex.put(product);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Writes every active product to the CSV export as the rows come off the database cursor. The rows are
+     * projections, not entities, so nothing builds up in the persistence context and heap use stays flat
+     * however big the catalog is.
+     *
+     * @return the number of products written
+     */
+    @Transactional(readOnly = true)
+    public int writeProductExport(Writer out) throws IOException {
+        CSVWriter writer = new CSVWriter(out);
+        writer.writeNext(EXPORT_HEADER);
+        // Get the header to the client before the first fetch comes back
+        writer.flush();
+        int written = 0;
+        try (Stream<ProductListView> rows = productRepository.streamActiveListViews()) {
+            Iterator<ProductListView> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeNext(toExportRow(iterator.next()));
+                if (++written % EXPORT_FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    private static String[] toExportRow(ProductListView product) {
+        return new String[] {
+            product.getId().toString(),
+            product.getName(),
+            product.getSku(),
+            product.getDescription(),
+            product.getUnit(),
+            product.getPurchasePrice() != null ? product.getPurchasePrice().toString() : "",
+            product.getMrp() != null ? product.getMrp().toString() : "",
+            product.getMinStockLevel() != null ? product.getMinStockLevel().toString() : "",
+            product.getMaxStockLevel() != null ? product.getMaxStockLevel().toString() : "",
+            product.getExpiryDate() != null ? product.getExpiryDate().toString() : "",
+            product.getManufacturerDate() != null ? product.getManufacturerDate().toString() : "",
+            product.getManufacturerCode() != null ? product.getManufacturerCode() : ""
+        };
+    }
+
     public List<Product> getLowStockProducts() {
         return productRepository.findLowStockProducts();
     }
@@ -119,4 +327,20 @@ public class ProductService {
     public Page<Product> findByStatus(Product.Status status, Pageable pageable) {
         return productRepository.findByStatusAndIsActiveTrue(status, pageable);
     }
+
+    /**
+     * Up to {@code limit} active products after the cursor, newest first.
+     */
+    public List<ProductListView> getProductListAfter(SeekCursor cursor, int limit) {
+        return productRepository.findActiveListViewsAfter(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit));
+    }
+
+    public List<ProductListView> getProductListByStatusAfter(Product.Status status, SeekCursor cursor, int limit) {
+        return productRepository.findActiveListViewsByStatusAfter(status, cursor.getCreatedAt(), cursor.getId(),
+                PageRequest.of(0, limit));
+    }
+
+    public long countByStatus(Product.Status status) {
+        return productRepository.countByStatusAndIsActiveTrue(status);
+    }
 }
\ No newline at end of file
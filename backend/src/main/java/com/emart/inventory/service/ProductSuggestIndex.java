@@ -0,0 +1,300 @@
+package com.emart.inventory.service;
+
+import com.emart.inventory.dto.ProductSalesVolume;
+import com.emart.inventory.dto.ProductSearchEntry;
+import com.emart.inventory.repository.InvoiceRepository;
+import com.emart.inventory.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over active product names and SKUs, ranked by units sold on invoices. The trie is stored
+ * compactly as a sorted array of lowercased keys, so every trie node is a contiguous range of keys.
+ * A max tree over the keys' sales volumes picks the best key of any range, and the top k of a prefix
+ * are taken from it best first without visiting the rest of the range.
+ * <p>
+ * The snapshot is immutable and rebuilt in the background. A rebuild runs a few seconds after the
+ * catalog changes, so a burst of changes such as a CSV import costs one rebuild. It also runs on a timer,
+ * to pick up new invoice volumes.
+ */
+@Service
+public class ProductSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Value("${product.suggest.rebuild-delay-seconds:10}")
+    private long rebuildDelaySeconds;
+
+    @Value("${product.suggest.refresh-minutes:60}")
+    private long refreshMinutes;
+
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of(), Map.of());
+
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-suggest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, 0, refreshMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules a rebuild. Changes that arrive before it runs are picked up by the same rebuild.
+     */
+    public void catalogChanged() {
+        if (scheduler != null && rebuildQueued.compareAndSet(false, true)) {
+            scheduler.schedule(this::rebuild, rebuildDelaySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void rebuild() {
+        rebuildQueued.set(false);
+        long started = System.currentTimeMillis();
+        try {
+            Map<Long, Long> salesVolumes = new HashMap<>();
+            for (ProductSalesVolume volume : invoiceRepository.findProductSalesVolumes()) {
+                if (volume.getQuantity() != null) {
+                    salesVolumes.put(volume.getProductId(), volume.getQuantity());
+                }
+            }
+            List<ProductSearchEntry> entries = ProductSearchIndex.readEntries(productRepository);
+            load(entries, salesVolumes);
+            logger.debug("Product suggestions rebuilt from {} products in {} ms",
+                    entries.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next change or refresh tries again
+            logger.error("Could not rebuild product suggestions: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replaces the suggestions with the active products among the given ones.
+     *
+     * @param salesVolumes units sold by product id; products missing from it rank as never sold
+     */
+    public void load(List<ProductSearchEntry> entries, Map<Long, Long> salesVolumes) {
+        snapshot = Snapshot.build(entries, salesVolumes);
+    }
+
+    /**
+     * Up to {@code limit} active products whose name or SKU starts with the prefix, ignoring case.
+     * Best sellers come first, and products that sold the same come in key order.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return snapshot.suggest(prefix.toLowerCase(Locale.ROOT), limit);
+    }
+
+    public static class Suggestion {
+        public Long id;
+        public String name;
+        public String sku;
+
+        Suggestion(Long id, String name, String sku) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+        }
+    }
+
+    private static final class Snapshot {
+        private final long[] productIds;
+        private final String[] names;
+        private final String[] skus;
+        private final long[] salesVolumes;
+        // Sorted lowercased names and SKUs, and the product each belongs to
+        private final String[] keys;
+        private final int[] keyProducts;
+        // Max tree over key positions: tree[keys.length + i] is key i, every parent the better of its children
+        private final int[] tree;
+
+        private Snapshot(long[] productIds, String[] names, String[] skus, long[] salesVolumes,
+                         String[] keys, int[] keyProducts) {
+            this.productIds = productIds;
+            this.names = names;
+            this.skus = skus;
+            this.salesVolumes = salesVolumes;
+            this.keys = keys;
+            this.keyProducts = keyProducts;
+            int count = keys.length;
+            this.tree = new int[2 * count];
+            for (int i = 0; i < count; i++) {
+                tree[count + i] = i;
+            }
+            for (int node = count - 1; node > 0; node--) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Snapshot build(List<ProductSearchEntry> entries, Map<Long, Long> salesVolumes) {
+            List<ProductSearchEntry> active = new ArrayList<>(entries.size());
+            for (ProductSearchEntry entry : entries) {
+                if (!Boolean.FALSE.equals(entry.getIsActive())) {
+                    active.add(entry);
+                }
+            }
+            int count = active.size();
+            long[] productIds = new long[count];
+            String[] names = new String[count];
+            String[] skus = new String[count];
+            long[] volumes = new long[count];
+            List<Key> keyList = new ArrayList<>(count * 2);
+            for (int product = 0; product < count; product++) {
+                ProductSearchEntry entry = active.get(product);
+                productIds[product] = entry.getId();
+                names[product] = entry.getName();
+                skus[product] = entry.getSku();
+                volumes[product] = salesVolumes.getOrDefault(entry.getId(), 0L);
+                addKey(keyList, entry.getName(), product);
+                addKey(keyList, entry.getSku(), product);
+            }
+            keyList.sort(Comparator.comparing((Key key) -> key.text));
+
+            String[] keys = new String[keyList.size()];
+            int[] keyProducts = new int[keyList.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keyList.get(i).text;
+                keyProducts[i] = keyList.get(i).product;
+            }
+            return new Snapshot(productIds, names, skus, volumes, keys, keyProducts);
+        }
+
+        private static void addKey(List<Key> keys, String value, int product) {
+            if (value != null && !value.isBlank()) {
+                keys.add(new Key(value.trim().toLowerCase(Locale.ROOT), product));
+            }
+        }
+
+        List<Suggestion> suggest(String prefix, int limit) {
+            int lo = firstAtLeast(prefix);
+            int hi = lo;
+            // The keys starting with the prefix follow it directly in sorted order
+            int end = keys.length;
+            while (hi < end) {
+                int mid = (hi + end) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    hi = mid + 1;
+                } else {
+                    end = mid;
+                }
+            }
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, hi - lo));
+            if (lo == hi) {
+                return suggestions;
+            }
+
+            // Ranges of the prefix still to look at, each with its best key; a name and a SKU of the
+            // same product can both match, so products are counted once
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(a[2], b[2]));
+            ranges.add(new int[]{lo, hi, best(lo, hi)});
+            Set<Integer> seen = new HashSet<>();
+            while (!ranges.isEmpty() && suggestions.size() < limit) {
+                int[] range = ranges.poll();
+                int key = range[2];
+                int product = keyProducts[key];
+                if (seen.add(product)) {
+                    suggestions.add(new Suggestion(productIds[product], names[product], skus[product]));
+                }
+                if (range[0] < key) {
+                    ranges.add(new int[]{range[0], key, best(range[0], key)});
+                }
+                if (key + 1 < range[1]) {
+                    ranges.add(new int[]{key + 1, range[1], best(key + 1, range[1])});
+                }
+            }
+            return suggestions;
+        }
+
+        private int firstAtLeast(String prefix) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // Best key in [lo, hi)
+        private int best(int lo, int hi) {
+            int result = -1;
+            for (lo += keys.length, hi += keys.length; lo < hi; lo >>= 1, hi >>= 1) {
+                if ((lo & 1) == 1) {
+                    result = better(result, tree[lo++]);
+                }
+                if ((hi & 1) == 1) {
+                    result = better(result, tree[--hi]);
+                }
+            }
+            return result;
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            return compare(a, b) <= 0 ? a : b;
+        }
+
+        // Higher sales volume first, then key order
+        private int compare(int a, int b) {
+            int byVolume = Long.compare(salesVolumes[keyProducts[b]], salesVolumes[keyProducts[a]]);
+            return byVolume != 0 ? byVolume : Integer.compare(a, b);
+        }
+    }
+
+    private static final class Key {
+        final String text;
+        final int product;
+
+        Key(String text, int product) {
+            this.text = text;
+            this.product = product;
+        }
+    }
+}
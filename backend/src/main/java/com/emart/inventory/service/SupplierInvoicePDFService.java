@@ -38,6 +38,13 @@ public class SupplierInvoicePDFService {
     public byte[] generateInvoicePDF(Long invoiceId) throws Exception {
         Invoice invoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
+        return renderInvoicePDF(invoice);
+    }
+
+    /**
+     * Renders an invoice that is already loaded, with its supplier, items and their products.
+     */
+    public byte[] renderInvoicePDF(Invoice invoice) throws Exception {
         Supplier supplier = invoice.getSupplier();
         List<InvoiceItem> items = invoice.getItems();
 
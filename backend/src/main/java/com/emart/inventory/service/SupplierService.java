@@ -2,10 +2,14 @@ package com.emart.inventory.service;
 
 import com.emart.inventory.entity.Supplier;
 import com.emart.inventory.repository.SupplierRepository;
+import com.emart.inventory.config.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +20,7 @@ public class SupplierService {
     @Autowired
     private SupplierRepository supplierRepository;
 
+    @Cacheable(cacheNames = CacheConfig.SUPPLIERS, key = "'all'", sync = true)
     public List<Supplier> getAllSuppliers() {
         return supplierRepository.findByIsActiveTrueOrderByNameAsc();
     }
@@ -28,10 +33,21 @@ public class SupplierService {
         return supplierRepository.findByName(name);
     }
 
+    public List<Supplier> findByNames(Collection<String> names) {
+        return supplierRepository.findByNameIn(names);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.SUPPLIERS, allEntries = true)
     public Supplier createSupplier(Supplier supplier) {
         return supplierRepository.save(supplier);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPLIERS, allEntries = true)
+    public List<Supplier> saveSuppliers(List<Supplier> suppliers) {
+        return supplierRepository.saveAll(suppliers);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.SUPPLIERS, allEntries = true)
     public Supplier updateSupplier(Long id, Supplier supplierDetails) {
         return supplierRepository.findById(id)
                 .filter(Supplier::getIsActive)
@@ -50,6 +66,7 @@ public class SupplierService {
                 .orElseThrow(() -> new RuntimeException("Supplier not found with id: " + id));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPLIERS, allEntries = true)
     public void deleteSupplier(Long id) {
         supplierRepository.findById(id)
                 .filter(Supplier::getIsActive)
@@ -0,0 +1,15 @@
+package com.emart.inventory.util;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Something that can feed parsed CSV rows, in file order, to a consumer in chunks of at most
+ * {@code chunkSize} rows. Returns the number of data rows read.
+ */
+@FunctionalInterface
+public interface CSVChunkSource {
+    int forEachChunk(int chunkSize, Consumer<List<ProductCSVDTO>> chunkConsumer);
+}
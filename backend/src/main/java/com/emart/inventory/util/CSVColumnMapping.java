@@ -0,0 +1,191 @@
+package com.emart.inventory.util;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column plan for a product CSV, compiled once from its header row. Columns are matched by name
+ * (case, spaces and underscores ignored), so supplier files with reordered or extra columns map
+ * correctly. A header with no known column names falls back to the template's column order.
+ */
+public final class CSVColumnMapping {
+
+    /** Product CSV columns, in template order. */
+    enum Column {
+        NAME("name", "productname"),
+        DESCRIPTION("description"),
+        SKU("sku"),
+        BARCODE("barcode"),
+        CATEGORY_NAME("categoryName", "category"),
+        SUPPLIER_NAME("supplierName", "supplier"),
+        UNIT("unit"),
+        PURCHASE_PRICE("purchasePrice"),
+        MRP("mrp"),
+        MIN_STOCK_LEVEL("minStockLevel"),
+        MAX_STOCK_LEVEL("maxStockLevel"),
+        EXPIRY_DATE("expiryDate"),
+        MANUFACTURER_DATE("manufacturerDate"),
+        BATCH_NUMBER("batchNumber"),
+        MANUFACTURER_CODE("manufacturerCode"),
+        QUANTITY("quantity", "units"),
+        SUPPLIER_EMAIL("supplierEmail"),
+        SUPPLIER_PHONE("supplierPhone"),
+        SUPPLIER_ADDRESS("supplierAddress");
+
+        // Template header name first, then accepted alternatives
+        final String[] headerNames;
+
+        Column(String... headerNames) {
+            this.headerNames = headerNames;
+        }
+    }
+
+    private static final Column[] COLUMNS = Column.values();
+    private static final Map<String, Column> COLUMNS_BY_HEADER = new HashMap<>();
+
+    static {
+        for (Column column : COLUMNS) {
+            for (String headerName : column.headerNames) {
+                COLUMNS_BY_HEADER.put(normalize(headerName), column);
+            }
+        }
+    }
+
+    // Index into the CSV line for each Column ordinal, or -1 when the file doesn't have it
+    private final int[] indexes;
+
+    private CSVColumnMapping(int[] indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Compiles the plan for a header row.
+     *
+     * @throws RuntimeException if the header names some columns but not the required name, sku and
+     *         manufacturerCode
+     */
+    public static CSVColumnMapping fromHeader(String[] header) {
+        int[] indexes = new int[COLUMNS.length];
+        Arrays.fill(indexes, -1);
+        boolean matched = false;
+        for (int i = 0; i < header.length; i++) {
+            Column column = COLUMNS_BY_HEADER.get(normalize(header[i]));
+            // First occurrence wins if a column is repeated
+            if (column != null && indexes[column.ordinal()] < 0) {
+                indexes[column.ordinal()] = i;
+                matched = true;
+            }
+        }
+        
+        if (!matched) {
+            return positional();
+        }
+        
+        List<String> missing = new ArrayList<>();
+        for (Column required : new Column[] {Column.NAME, Column.SKU, Column.MANUFACTURER_CODE}) {
+            if (indexes[required.ordinal()] < 0) {
+                missing.add(required.headerNames[0]);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("CSV header is missing required columns: " + String.join(", ", missing));
+        }
+        return new CSVColumnMapping(indexes);
+    }
+
+    /** The template's fixed column order, for files whose header names aren't recognised. */
+    public static CSVColumnMapping positional() {
+        int[] indexes = new int[COLUMNS.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return new CSVColumnMapping(indexes);
+    }
+
+    /**
+     * Maps one CSV line. Numbers that don't parse are left unset and reported through
+     * {@link ProductCSVDTO#getParseError()} so the row is rejected instead of loading partial data.
+     */
+    public ProductCSVDTO toDTO(String[] line, int lineNumber) {
+        ProductCSVDTO dto = new ProductCSVDTO();
+        dto.setRowNumber(lineNumber);
+        dto.setName(text(line, Column.NAME));
+        dto.setDescription(text(line, Column.DESCRIPTION));
+        dto.setSku(text(line, Column.SKU));
+        dto.setBarcode(text(line, Column.BARCODE));
+        dto.setCategoryName(text(line, Column.CATEGORY_NAME));
+        dto.setSupplierName(text(line, Column.SUPPLIER_NAME));
+        dto.setUnit(text(line, Column.UNIT));
+        dto.setPurchasePrice(decimal(line, Column.PURCHASE_PRICE, dto));
+        dto.setMrp(decimal(line, Column.MRP, dto));
+        dto.setMinStockLevel(integer(line, Column.MIN_STOCK_LEVEL, dto));
+        dto.setMaxStockLevel(integer(line, Column.MAX_STOCK_LEVEL, dto));
+        dto.setExpiryDate(text(line, Column.EXPIRY_DATE));
+        dto.setManufacturerDate(text(line, Column.MANUFACTURER_DATE));
+        dto.setBatchNumber(text(line, Column.BATCH_NUMBER));
+        dto.setManufacturerCode(text(line, Column.MANUFACTURER_CODE));
+        dto.setQuantity(integer(line, Column.QUANTITY, dto));
+        dto.setSupplierEmail(text(line, Column.SUPPLIER_EMAIL));
+        dto.setSupplierPhone(text(line, Column.SUPPLIER_PHONE));
+        dto.setSupplierAddress(text(line, Column.SUPPLIER_ADDRESS));
+        return dto;
+    }
+
+    private String text(String[] line, Column column) {
+        int index = indexes[column.ordinal()];
+        return index >= 0 && index < line.length ? line[index] : null;
+    }
+
+    private BigDecimal decimal(String[] line, Column column, ProductCSVDTO dto) {
+        String value = text(line, column);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        BigDecimal parsed = CSVFieldParser.parseDecimal(value);
+        if (parsed == null) {
+            reportInvalid(dto, column, value);
+        }
+        return parsed;
+    }
+
+    private Integer integer(String[] line, Column column, ProductCSVDTO dto) {
+        String value = text(line, column);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        Integer parsed = CSVFieldParser.parseInteger(value);
+        if (parsed == null) {
+            reportInvalid(dto, column, value);
+        }
+        return parsed;
+    }
+
+    private static void reportInvalid(ProductCSVDTO dto, Column column, String value) {
+        // Keep the first problem; one is enough to reject the row
+        if (dto.getParseError() == null) {
+            dto.setParseError("Invalid number in column " + column.headerNames[0] + ": " + value);
+        }
+    }
+
+    private static String normalize(String headerName) {
+        if (headerName == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(headerName.length());
+        for (int i = 0; i < headerName.length(); i++) {
+            char c = headerName.charAt(i);
+            // Drops spaces, underscores, dashes and a UTF-8 byte order mark
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+}
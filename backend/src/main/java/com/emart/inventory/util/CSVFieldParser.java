@@ -0,0 +1,123 @@
+package com.emart.inventory.util;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+
+/**
+ * Exception-free parsing of CSV field values. Each method checks the text by hand and returns
+ * {@code null} when it doesn't fit, so dirty rows don't pay for a thrown exception per bad field.
+ */
+public final class CSVFieldParser {
+
+    private CSVFieldParser() {}
+
+    /**
+     * Parses an optionally signed integer; {@code null} if the value is not one or overflows an int.
+     */
+    public static Integer parseInteger(String value) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        int length = s.length();
+        if (length == 0) {
+            return null;
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = s.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (length == 1) {
+                return null;
+            }
+        }
+        long result = 0;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            result = result * 10 + (c - '0');
+            if (result > (long) Integer.MAX_VALUE + 1) {
+                return null;
+            }
+        }
+        result = negative ? -result : result;
+        if (result > Integer.MAX_VALUE || result < Integer.MIN_VALUE) {
+            return null;
+        }
+        return (int) result;
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 45000}, {@code -3.5} or {@code .99}; {@code null} if the
+     * value is anything else (no exponents or thousands separators).
+     */
+    public static BigDecimal parseDecimal(String value) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        int length = s.length();
+        int i = 0;
+        if (length > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        boolean seenPoint = false;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return null;
+            }
+        }
+        // The text is known to be well formed, so the constructor can't throw
+        return digits == 0 ? null : new BigDecimal(s);
+    }
+
+    /**
+     * Parses a {@code YYYY-MM-DD} date; {@code null} if the value has another shape or is not a real
+     * calendar date.
+     */
+    public static LocalDate parseIsoDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        int monthLength = switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+        return day <= monthLength ? LocalDate.of(year, month, day) : null;
+    }
+
+    // Value of s[from, to) if it is all digits, otherwise -1
+    private static int digits(String s, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
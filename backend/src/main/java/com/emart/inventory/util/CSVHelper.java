@@ -7,105 +7,126 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 public class CSVHelper {
     
     private static final Logger logger = LoggerFactory.getLogger(CSVHelper.class);
     
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final int DECOMPRESS_BUFFER_SIZE = 64 * 1024;
+
+    /** Column names of the import template, in order. */
+    public static final String[] TEMPLATE_HEADER = {
+        "name", "description", "sku", "barcode", "categoryName", "supplierName", "unit", "purchasePrice", "mrp",
+        "minStockLevel", "maxStockLevel", "expiryDate", "manufacturerDate", "batchNumber", "manufacturerCode",
+        "quantity", "supplierEmail", "supplierPhone", "supplierAddress"
+    };
+
+    /**
+     * Wraps an upload stream so the parser reads plain CSV: {@code .csv.gz} files are gunzipped and
+     * {@code .zip} files are read from their first CSV entry, both as a stream without unpacking to disk.
+     */
+    public static InputStream openUpload(InputStream in, String fileName) throws IOException {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".gz")) {
+            return new GZIPInputStream(in, DECOMPRESS_BUFFER_SIZE);
+        }
+        if (name.endsWith(".zip")) {
+            ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in, DECOMPRESS_BUFFER_SIZE));
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String entryName = entry.getName().toLowerCase(Locale.ROOT);
+                // Skip the resource-fork copies macOS adds to archives
+                boolean macMetadata = entryName.startsWith("__macosx/") || entryName.contains("/._") || entryName.startsWith("._");
+                if (!entry.isDirectory() && !macMetadata && entryName.endsWith(".csv")) {
+                    return zip;
+                }
+            }
+            zip.close();
+            throw new RuntimeException("ZIP file does not contain a CSV file");
+        }
+        return in;
+    }
+
+    /** Whether an upload name is a CSV file, plain or compressed. */
+    public static boolean isSupportedUpload(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".csv.gz") || name.endsWith(".zip");
+    }
+
     public static List<ProductCSVDTO> convert(MultipartFile file) {
         List<ProductCSVDTO> list = new ArrayList<>();
         
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
+        try (InputStream in = openUpload(file.getInputStream(), file.getOriginalFilename())) {
+            forEachChunk(in, DEFAULT_CHUNK_SIZE, list::addAll);
+        } catch (IOException e) {
+            logger.error("Error reading CSV file: {}", e.getMessage());
+            throw new RuntimeException("CSV parse error: " + e.getMessage());
+        }
+        
+        return list;
+    }
+
+    /**
+     * Reads the CSV row by row and hands the parsed rows to {@code chunkConsumer} in lists of at most
+     * {@code chunkSize} entries, so callers can persist a large upload without holding all of it in memory.
+     * Each chunk list is fresh and may be kept by the consumer.
+     *
+     * @return the number of data rows handed to the consumer
+     */
+    public static int forEachChunk(InputStream in, int chunkSize, Consumer<List<ProductCSVDTO>> chunkConsumer) {
+        int rowCount = 0;
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
              CSVReader csvReader = new CSVReader(reader)) {
             
-            // Skip header row
+            // Columns are matched by header name once, then every row goes through the compiled plan
             String[] header = csvReader.readNext();
             if (header == null) {
                 throw new RuntimeException("CSV file is empty");
             }
+            CSVColumnMapping mapping = CSVColumnMapping.fromHeader(header);
             
+            List<ProductCSVDTO> chunk = new ArrayList<>(chunkSize);
             String[] line;
             int lineNumber = 1; // Start from 1 since we skipped header
             
             while ((line = csvReader.readNext()) != null) {
                 lineNumber++;
                 try {
-                    ProductCSVDTO dto = new ProductCSVDTO();
-                    
-                    // Map CSV columns to DTO fields
-                    if (line.length > 0) dto.setName(line[0]);
-                    if (line.length > 1) dto.setDescription(line[1]);
-                    if (line.length > 2) dto.setSku(line[2]);
-                    if (line.length > 3) dto.setBarcode(line[3]);
-                    if (line.length > 4) dto.setCategoryName(line[4]);
-                    if (line.length > 5) dto.setSupplierName(line[5]);
-                    if (line.length > 6) dto.setUnit(line[6]);
-                    
-                    // Handle numeric fields
-                    if (line.length > 7 && !line[7].trim().isEmpty()) {
-                        try {
-                            dto.setPurchasePrice(new BigDecimal(line[7]));
-                        } catch (NumberFormatException e) {
-                            logger.warn("Invalid purchase price at line {}: {}", lineNumber, line[7]);
-                        }
-                    }
-                    
-                    if (line.length > 8 && !line[8].trim().isEmpty()) {
-                        try {
-                            dto.setMrp(new BigDecimal(line[8]));
-                        } catch (NumberFormatException e) {
-                            logger.warn("Invalid MRP at line {}: {}", lineNumber, line[8]);
-                        }
-                    }
-                    
-                    if (line.length > 9 && !line[9].trim().isEmpty()) {
-                        try {
-                            dto.setMinStockLevel(Integer.parseInt(line[9]));
-                        } catch (NumberFormatException e) {
-                            logger.warn("Invalid min stock level at line {}: {}", lineNumber, line[9]);
-                        }
-                    }
-                    
-                    if (line.length > 10 && !line[10].trim().isEmpty()) {
-                        try {
-                            dto.setMaxStockLevel(Integer.parseInt(line[10]));
-                        } catch (NumberFormatException e) {
-                            logger.warn("Invalid max stock level at line {}: {}", lineNumber, line[10]);
-                        }
-                    }
-                    
-                    // Handle date fields
-                    if (line.length > 11) dto.setExpiryDate(line[11]);
-                    if (line.length > 12) dto.setManufacturerDate(line[12]);
-                    if (line.length > 13) dto.setBatchNumber(line[13]);
-                    if (line.length > 14) dto.setManufacturerCode(line[14]);
-                    // Handle units column
-                    if (line.length > 15 && !line[15].trim().isEmpty()) {
-                        try {
-                            dto.setQuantity(Integer.parseInt(line[15]));
-                        } catch (NumberFormatException e) {
-                            logger.warn("Invalid quantity at line {}: {}", lineNumber, line[15]);
-                        }
-                    }
-                    
-                    if (line.length > 16) dto.setSupplierEmail(line[16]);
-                    if (line.length > 17) dto.setSupplierPhone(line[17]);
-                    if (line.length > 18) dto.setSupplierAddress(line[18]);
-                    
-                    list.add(dto);
-                    
+                    chunk.add(mapping.toDTO(line, lineNumber));
                 } catch (Exception e) {
                     logger.error("Error processing line {}: {}", lineNumber, e.getMessage());
                     // Continue processing other lines
                 }
+                
+                if (chunk.size() >= chunkSize) {
+                    rowCount += chunk.size();
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            
+            if (!chunk.isEmpty()) {
+                rowCount += chunk.size();
+                chunkConsumer.accept(chunk);
             }
             
         } catch (IOException | CsvValidationException e) {
@@ -113,11 +134,11 @@ public class CSVHelper {
             throw new RuntimeException("CSV parse error: " + e.getMessage());
         }
         
-        return list;
+        return rowCount;
     }
-    
+
     public static String getCSVTemplate() {
-        return "name,description,sku,barcode,categoryName,supplierName,unit,purchasePrice,mrp,minStockLevel,maxStockLevel,expiryDate,manufacturerDate,batchNumber,manufacturerCode,quantity,supplierEmail,supplierPhone,supplierAddress\n" +
+        return String.join(",", TEMPLATE_HEADER) + "\n" +
                "Sample Product,Sample Description,SKU001,1234567890123,Electronics,Supplier A,pcs,100.00,150.00,10,100,2024-12-31,2024-01-01,BATCH001,12345,50,supplier@email.com,1234567890,123 Main St";
     }
 } 
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.emart.inventory.util;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Row validation for CSV product imports, kept free of Spring and the database so it can be
+ * benchmarked on its own.
+ */
+public final class CSVImportValidator {
+
+    private CSVImportValidator() {}
+
+    /** SKU comparison key; the sku column uses a case-insensitive collation. */
+    public static String skuKey(String sku) {
+        return sku.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks one parsed row and returns the reason it is rejected, or {@code null} if it can be staged.
+     *
+     * @param existingSkus SKU keys already in the catalog
+     * @param seenSkus     SKU keys accepted earlier in the same file; the row's key is added when it passes
+     */
+    public static String validate(ProductCSVDTO dto, Set<String> existingSkus, Set<String> seenSkus) {
+        // Basic validation
+        if (dto.getName() == null || dto.getName().trim().isEmpty()) {
+            return "Product name is required";
+        }
+        
+        if (dto.getSku() == null || dto.getSku().trim().isEmpty()) {
+            return "SKU is required";
+        }
+        
+        if (dto.getManufacturerCode() == null || dto.getManufacturerCode().trim().isEmpty()) {
+            return "Manufacturer code is required";
+        }
+        
+        if (dto.getManufacturerCode().length() != 5) {
+            return "Manufacturer code must be exactly 5 digits";
+        }
+        
+        // Check if SKU already exists
+        String skuKey = skuKey(dto.getSku());
+        if (existingSkus.contains(skuKey)) {
+            return "SKU already exists: " + dto.getSku();
+        }
+        
+        if (dto.getParseError() != null) {
+            return dto.getParseError();
+        }
+        
+        // Validate dates if provided
+        if (dto.getExpiryDate() != null && !dto.getExpiryDate().trim().isEmpty()
+                && CSVFieldParser.parseIsoDate(dto.getExpiryDate()) == null) {
+            return "Invalid expiry date format. Use YYYY-MM-DD";
+        }
+        
+        if (dto.getManufacturerDate() != null && !dto.getManufacturerDate().trim().isEmpty()
+                && CSVFieldParser.parseIsoDate(dto.getManufacturerDate()) == null) {
+            return "Invalid manufacturer date format. Use YYYY-MM-DD";
+        }
+        
+        // Only the first valid row for a SKU is accepted
+        if (!seenSkus.add(skuKey)) {
+            return "Duplicate SKU in file: " + dto.getSku();
+        }
+        
+        return null; // No validation errors
+    }
+}
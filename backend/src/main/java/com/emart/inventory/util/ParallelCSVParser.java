@@ -0,0 +1,193 @@
+package com.emart.inventory.util;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Parses a large uncompressed CSV file on several cores. The file is memory-mapped and split into
+ * segments of roughly {@code segmentSize} bytes that end on a record boundary. Newlines inside
+ * quoted fields are respected. Segments are parsed on a fork-join pool. Rows are still handed to
+ * the consumer in file order, with the same row numbers {@link CSVHelper#forEachChunk} would
+ * give them. Only a bounded number of parsed segments is held in memory at once.
+ */
+public class ParallelCSVParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelCSVParser.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    // Largest region mapped at once while looking for boundaries (a single mapping is limited to 2GB)
+    private static final long SCAN_WINDOW_SIZE = 1L << 30;
+
+    private final ForkJoinPool pool;
+    private final int segmentSize;
+
+    public ParallelCSVParser(ForkJoinPool pool, int segmentSize) {
+        this.pool = pool;
+        this.segmentSize = segmentSize;
+    }
+
+    // Byte range [start, end) of the file; firstRecord is the 0-based record index at start (the header is record 0)
+    private record Segment(long start, long end, int firstRecord) {}
+
+    /**
+     * Same contract as {@link CSVHelper#forEachChunk}: the first record is the header, and data rows
+     * reach {@code chunkConsumer} in file order in fresh lists of at most {@code chunkSize} rows.
+     *
+     * @return the number of data rows handed to the consumer
+     */
+    public int forEachChunk(Path file, int chunkSize, Consumer<List<ProductCSVDTO>> chunkConsumer) {
+        Deque<ForkJoinTask<List<ProductCSVDTO>>> inFlight = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Segment> segments = findSegments(channel);
+            if (segments.isEmpty()) {
+                throw new RuntimeException("CSV file is empty");
+            }
+            
+            // Segment 0 is just the header row
+            List<String[]> headerRecords = readRecords(channel, segments.get(0));
+            if (headerRecords.isEmpty()) {
+                throw new RuntimeException("CSV file is empty");
+            }
+            CSVColumnMapping mapping = CSVColumnMapping.fromHeader(headerRecords.get(0));
+            
+            // Keep a few segments ahead of the consumer so every worker stays busy without parsing the whole file up front
+            int window = Math.max(2, pool.getParallelism() * 2);
+            int rowCount = 0;
+            int next = 1;
+            List<ProductCSVDTO> chunk = new ArrayList<>(chunkSize);
+            while (next < segments.size() || !inFlight.isEmpty()) {
+                while (next < segments.size() && inFlight.size() < window) {
+                    Segment segment = segments.get(next++);
+                    inFlight.addLast(pool.submit(() -> parseSegment(channel, segment, mapping)));
+                }
+                
+                for (ProductCSVDTO dto : inFlight.pollFirst().join()) {
+                    chunk.add(dto);
+                    if (chunk.size() >= chunkSize) {
+                        rowCount += chunk.size();
+                        chunkConsumer.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            }
+            
+            if (!chunk.isEmpty()) {
+                rowCount += chunk.size();
+                chunkConsumer.accept(chunk);
+            }
+            return rowCount;
+            
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading CSV file: {}", e.getMessage());
+            throw new RuntimeException("CSV parse error: " + e.getMessage());
+        } finally {
+            // Only left over when the consumer or a segment failed
+            inFlight.forEach(task -> task.cancel(true));
+        }
+    }
+
+    /**
+     * Walks the file once, tracking quote state, and cuts it after the header and then after the first
+     * unquoted newline past every {@code segmentSize} bytes. Counting those newlines gives each segment's
+     * first record index. Quote handling follows OpenCSV's default parser: {@code ""} toggles twice, and a
+     * backslash inside quotes escapes the next character.
+     */
+    private List<Segment> findSegments(FileChannel channel) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        long size = channel.size();
+        long segmentStart = 0;
+        int records = 0;
+        int segmentFirstRecord = 0;
+        boolean inQuotes = false;
+        boolean escaped = false;
+        
+        for (long windowStart = 0; windowStart < size; windowStart += SCAN_WINDOW_SIZE) {
+            int windowLength = (int) Math.min(SCAN_WINDOW_SIZE, size - windowStart);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+            for (int i = 0; i < windowLength; i++) {
+                byte b = window.get(i);
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\\' && inQuotes) {
+                    escaped = true;
+                } else if (b == '\n' && !inQuotes) {
+                    records++;
+                    long end = windowStart + i + 1;
+                    if (segments.isEmpty() || end - segmentStart >= segmentSize) {
+                        segments.add(new Segment(segmentStart, end, segmentFirstRecord));
+                        segmentStart = end;
+                        segmentFirstRecord = records;
+                    }
+                }
+            }
+        }
+        if (segmentStart < size) {
+            segments.add(new Segment(segmentStart, size, segmentFirstRecord));
+        }
+        return segments;
+    }
+
+    private List<ProductCSVDTO> parseSegment(FileChannel channel, Segment segment, CSVColumnMapping mapping) {
+        List<ProductCSVDTO> rows = new ArrayList<>();
+        // Row numbers are 1-based and the header is row 1, as in CSVHelper
+        int lineNumber = segment.firstRecord();
+        for (String[] line : readRecords(channel, segment)) {
+            lineNumber++;
+            try {
+                rows.add(mapping.toDTO(line, lineNumber));
+            } catch (Exception e) {
+                logger.error("Error processing line {}: {}", lineNumber, e.getMessage());
+                // Continue processing other lines
+            }
+        }
+        return rows;
+    }
+
+    private List<String[]> readRecords(FileChannel channel, Segment segment) {
+        long length = segment.end() - segment.start();
+        if (length > Integer.MAX_VALUE) {
+            throw new RuntimeException("CSV record starting at byte " + segment.start() + " is too large");
+        }
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, segment.start(), length);
+            // Segments end on a newline byte, so no multi-byte UTF-8 character is ever split between two of them
+            CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+            List<String[]> records = new ArrayList<>();
+            try (CSVReader reader = new CSVReader(new CharArrayReader(
+                    chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()))) {
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    records.add(line);
+                }
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CsvValidationException e) {
+            throw new RuntimeException("CSV parse error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.emart.inventory.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a newest-first listing ordered by {@code (createdAt, id)}. The next page starts with the
+ * rows after it, found with a seek predicate instead of an OFFSET. Clients see it only as an opaque
+ * string, so the encoding can change without breaking them.
+ */
+public final class SeekCursor {
+
+    /** Position before the newest row, for the first page. */
+    public static final SeekCursor FIRST = new SeekCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public SeekCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getId() { return id; }
+
+    public String encode() {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor returned by {@link #encode()}. A blank cursor means the first page.
+     *
+     * @throws IllegalArgumentException if the cursor wasn't produced by {@link #encode()}
+     */
+    public static SeekCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new SeekCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
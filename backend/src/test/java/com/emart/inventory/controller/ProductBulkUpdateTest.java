@@ -0,0 +1,205 @@
+package com.emart.inventory.controller;
+
+import com.emart.inventory.dto.ProductPatch;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.repository.ProductRepository;
+import com.emart.inventory.service.BarcodeIndex;
+import com.emart.inventory.service.CSVImportService;
+import com.emart.inventory.service.ProductBulkUpdateService;
+import com.emart.inventory.service.ProductMinPayloadCache;
+import com.emart.inventory.service.ProductSearchIndex;
+import com.emart.inventory.service.ProductService;
+import com.emart.inventory.service.ProductSuggestIndex;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code PATCH /api/products/batch} against H2. Every chunk commits on its own, so the test runs outside a
+ * transaction and the products are deleted after each test. Chunks of two make a batch span several
+ * chunks, and a CHECK constraint the service doesn't know about makes the database reject one row.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.emart.inventory.controller.ProductBulkUpdateTest$RecordingInspector",
+        "product.search.index.enabled=false",
+        "barcode.index.enabled=false",
+        "product.bulk-update.chunk-size=2"
+})
+@Import({ProductService.class, ProductSearchIndex.class, ProductBulkUpdateService.class, ProductController.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBulkUpdateTest {
+
+    private static final String REJECTED_BY_DATABASE = "REJECTED-BY-DB";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductController productController;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private ProductSuggestIndex productSuggestIndex;
+
+    @MockBean
+    private ProductMinPayloadCache productMinPayloadCache;
+
+    @MockBean
+    private BarcodeIndex barcodeIndex;
+
+    @MockBean
+    private CSVImportService csvImportService;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE products ADD CONSTRAINT IF NOT EXISTS batch_number_accepted " +
+                    "CHECK (batch_number IS NULL OR batch_number <> '" + REJECTED_BY_DATABASE + "')");
+        }
+        for (int i = 1; i <= 6; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("SKU" + i);
+            product.setMrp(BigDecimal.valueOf(100));
+            product.setStatus(Product.Status.APPROVED);
+            products.add(productRepository.save(product));
+        }
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        products.clear();
+    }
+
+    @Test
+    void everyChunkIsOneUpdate() {
+        List<ProductPatch> patches = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            BigDecimal mrp = BigDecimal.valueOf(200 + i);
+            patches.add(byId(i, patch -> patch.setMrp(mrp)));
+        }
+
+        Map<String, Object> body = patch(patches);
+
+        assertThat(body.get("updated")).isEqualTo(5);
+        assertThat(statuses(body)).containsOnly("UPDATED");
+        // Five rows in chunks of two
+        assertThat(updates()).isEqualTo(3);
+        for (int i = 0; i < 5; i++) {
+            assertThat(reload(i).getMrp()).isEqualByComparingTo(BigDecimal.valueOf(200 + i));
+        }
+        assertThat(reload(5).getMrp()).isEqualByComparingTo(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void mixedBatchReportsEveryRow() {
+        String longDescription = "d".repeat(1000);
+        List<ProductPatch> patches = List.of(
+                byId(0, patch -> patch.setName("Renamed 1")),
+                bySku("SKU2", patch -> patch.setMrp(new BigDecimal("99.50"))),
+                bySku("NO-SUCH-SKU", patch -> patch.setMrp(BigDecimal.ONE)),
+                byId(0, patch -> patch.setUnit("kg")),
+                bySku("SKU3", patch -> patch.setName("n".repeat(101))),
+                byId(3, patch -> patch.setDescription(longDescription)),
+                byId(4, patch -> patch.setBatchNumber(REJECTED_BY_DATABASE)),
+                bySku("SKU6", patch -> patch.setBatchNumber("B-6")));
+
+        Map<String, Object> body = patch(patches);
+
+        assertThat(statuses(body)).containsExactly(
+                "UPDATED", "UPDATED", "NOT_FOUND", "DUPLICATE", "INVALID", "UPDATED", "FAILED", "UPDATED");
+        assertThat(body.get("total")).isEqualTo(8);
+        assertThat(body.get("updated")).isEqualTo(4);
+        assertThat(body.get("failed")).isEqualTo(4);
+
+        // Chunks [1, 2], [6, 7] and [8]; the second fails and is redone as one update per row
+        assertThat(updates()).isEqualTo(5);
+
+        assertThat(reload(0).getName()).isEqualTo("Renamed 1");
+        assertThat(reload(0).getUnit()).isEqualTo("pcs");
+        assertThat(reload(1).getMrp()).isEqualByComparingTo("99.50");
+        assertThat(reload(2).getName()).isEqualTo("Product 3");
+        assertThat(reload(3).getDescription()).isEqualTo(longDescription);
+        assertThat(reload(4).getBatchNumber()).isNull();
+        assertThat(reload(5).getBatchNumber()).isEqualTo("B-6");
+    }
+
+    private Map<String, Object> patch(List<ProductPatch> patches) {
+        ResponseEntity<Map<String, Object>> response = productController.updateProducts(patches, "MAKER");
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return response.getBody();
+    }
+
+    private ProductPatch byId(int product, Consumer<ProductPatch> fields) {
+        ProductPatch patch = new ProductPatch();
+        patch.setId(products.get(product).getId());
+        fields.accept(patch);
+        return patch;
+    }
+
+    private static ProductPatch bySku(String sku, Consumer<ProductPatch> fields) {
+        ProductPatch patch = new ProductPatch();
+        patch.setSku(sku);
+        fields.accept(patch);
+        return patch;
+    }
+
+    private Product reload(int product) {
+        return productRepository.findById(products.get(product).getId()).orElseThrow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> statuses(Map<String, Object> body) {
+        return ((List<Map<String, Object>>) body.get("results")).stream()
+                .map(result -> (String) result.get("status"))
+                .toList();
+    }
+
+    private static long updates() {
+        return RecordingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("update products"))
+                .count();
+    }
+
+    // Sees every statement Hibernate prepares, including the ones the database then rejects
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.emart.inventory.controller;
+
+import com.emart.inventory.dto.ProductListView;
+import com.emart.inventory.entity.Category;
+import com.emart.inventory.entity.Inventory;
+import com.emart.inventory.entity.Product;
+import com.emart.inventory.entity.Supplier;
+import com.emart.inventory.repository.ProductRepository;
+import com.emart.inventory.service.BarcodeIndex;
+import com.emart.inventory.service.CSVImportService;
+import com.emart.inventory.service.ProductBulkUpdateService;
+import com.emart.inventory.service.ProductMinPayloadCache;
+import com.emart.inventory.service.ProductSearchIndex;
+import com.emart.inventory.service.ProductService;
+import com.emart.inventory.service.ProductSuggestIndex;
+import com.emart.inventory.util.SeekCursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The product list must cost one statement per page, plus one for the total where the response carries
+ * it. Each listing path is called against a seeded H2 database and its prepared statements are counted,
+ * so an N+1 on category, supplier or the eager inventory fails here.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "product.search.index.enabled=false",
+        "barcode.index.enabled=false"
+})
+@Import({ProductService.class, ProductSearchIndex.class, ProductController.class})
+class ProductListQueryCountTest {
+
+    // More products of each status than fit on a page, so the count query isn't skipped
+    private static final int ROWS = 50;
+    private static final int PAGE_SIZE = 20;
+
+    private static final Pageable NEWEST_FIRST = PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt").descending());
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductController productController;
+
+    @MockBean
+    private ProductSuggestIndex productSuggestIndex;
+
+    @MockBean
+    private ProductMinPayloadCache productMinPayloadCache;
+
+    @MockBean
+    private BarcodeIndex barcodeIndex;
+
+    @MockBean
+    private CSVImportService csvImportService;
+
+    @MockBean
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    private Statistics statistics;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        seed();
+        productSearchIndex.load(productRepository.findSearchEntriesAfter(0L, PageRequest.of(0, 1000)));
+    }
+
+    @Test
+    void repositoryPagesRunTheListQueryAndTheCount() {
+        assertStatements(2, () -> productRepository.findActiveListViews(NEWEST_FIRST));
+        assertStatements(2, () -> productRepository.findActiveListViewsByStatus(Product.Status.PENDING, NEWEST_FIRST));
+        assertStatements(2, () -> productRepository.searchListViews("product", null, NEWEST_FIRST));
+        assertStatements(2, () -> productRepository.searchListViews(null, category.getId(), NEWEST_FIRST));
+    }
+
+    @Test
+    void repositoryListsRunOneStatement() {
+        List<Long> ids = productRepository.findActiveListViews(NEWEST_FIRST).getContent().stream()
+                .map(ProductListView::getId)
+                .toList();
+
+        assertStatements(1, () -> productRepository.findListViewsByIdIn(ids));
+        assertStatements(1, () -> productRepository.findActiveListViewsAfter(
+                SeekCursor.FIRST.getCreatedAt(), SeekCursor.FIRST.getId(), PageRequest.of(0, PAGE_SIZE)));
+        assertStatements(1, () -> productRepository.findActiveListViewsByStatusAfter(Product.Status.PENDING,
+                SeekCursor.FIRST.getCreatedAt(), SeekCursor.FIRST.getId(), PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Test
+    void serviceListsRunOneStatementPerPage() {
+        Page<ProductListView> page = assertStatements(2, () -> productService.getProductList(NEWEST_FIRST));
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(ROWS);
+
+        assertStatements(2, () -> productService.getProductListByStatus(Product.Status.PENDING, NEWEST_FIRST));
+        assertStatements(2, () -> productService.searchProductList(null, category.getId(), NEWEST_FIRST));
+        // The index answers newest-first searches and counts the matches; only the rows are read
+        assertStatements(1, () -> productService.searchProductList("Product", null, NEWEST_FIRST));
+        // Any other order goes to the database
+        assertStatements(2, () -> productService.searchProductList("Product", null,
+                PageRequest.of(0, PAGE_SIZE, Sort.by("name"))));
+
+        List<ProductListView> after = assertStatements(1, () -> productService.getProductListAfter(SeekCursor.FIRST, PAGE_SIZE + 1));
+        assertThat(after).hasSize(PAGE_SIZE + 1);
+        assertStatements(1, () -> productService.getProductListByStatusAfter(Product.Status.PENDING, SeekCursor.FIRST, PAGE_SIZE + 1));
+    }
+
+    @Test
+    void controllerListsRunOneStatementPerPage() {
+        for (String role : List.of("ADMIN", "CHECKER", "MAKER")) {
+            ResponseEntity<Map<String, Object>> response = assertStatements(2,
+                    () -> productController.getAllProducts(role, 0, PAGE_SIZE, null, null, null, false));
+            assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+            assertThat((List<?>) response.getBody().get("products")).hasSize(PAGE_SIZE);
+        }
+        assertStatements(2, () -> productController.getAllProducts("ADMIN", 0, PAGE_SIZE, null, category.getId(), null, false));
+        assertStatements(1, () -> productController.getAllProducts("ADMIN", 0, PAGE_SIZE, "Product", null, null, false));
+
+        assertStatements(1, () -> productController.getAllProducts("ADMIN", 0, PAGE_SIZE, null, null, "", false));
+        assertStatements(1, () -> productController.getAllProducts("CHECKER", 0, PAGE_SIZE, null, null, "", false));
+        assertStatements(2, () -> productController.getAllProducts("ADMIN", 0, PAGE_SIZE, null, null, "", true));
+    }
+
+    private <T> T assertStatements(long expected, java.util.function.Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount()).as("prepared statements").isEqualTo(expected);
+        return result;
+    }
+
+    private void seed() {
+        category = entityManager.persist(new Category("Groceries", null));
+        Category other = entityManager.persist(new Category("Beverages", null));
+        Supplier supplier = entityManager.persist(new Supplier("Acme Traders", "Ravi", "acme@example.com", "9876543210"));
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("SKU" + i);
+            product.setUnit("pcs");
+            product.setPurchasePrice(BigDecimal.valueOf(100));
+            product.setMrp(BigDecimal.valueOf(150));
+            product.setQuantity(i);
+            product.setStatus(i % 2 == 0 ? Product.Status.APPROVED : Product.Status.PENDING);
+            product.setCategory(i % 2 == 0 ? category : other);
+            product.setSupplier(supplier);
+            entityManager.persist(product);
+            entityManager.persist(new Inventory(product, "MAIN", i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,128 @@
+package com.emart.inventory.util;
+
+import com.emart.inventory.dto.ProductCSVDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The parallel parser must read a file exactly as {@link CSVHelper#forEachChunk} does, row numbers
+ * included, since those are what the import errors point the user at. Segments of a few dozen bytes
+ * put a boundary next to nearly every record, including the quoted ones that span lines.
+ */
+class ParallelCSVParserTest {
+
+    private static final int SEGMENT_SIZE = 48;
+    private static final int CHUNK_SIZE = 7;
+
+    @TempDir
+    Path directory;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void parsesLikeTheSequentialParser() throws IOException {
+        // Row number each SKU is expected at, counting records as the sequential parser does
+        Map<String, Integer> expectedRows = new HashMap<>();
+        StringBuilder csv = new StringBuilder("\uFEFF").append(String.join(",", CSVHelper.TEMPLATE_HEADER)).append("\r\n");
+        int record = 1;
+        for (int i = 0; i < 60; i++) {
+            String sku = "SKU-" + i;
+            record++;
+            expectedRows.put(sku, record);
+            String description = switch (i % 6) {
+                case 0 -> "\"Two lines,\r\nwith a comma\"";
+                case 1 -> "\"Says \"\"fresh\"\" on the pack\"";
+                case 2 -> "\"A 5\\\" screen, then a\nbare newline\"";
+                case 3 -> "\"\"";
+                default -> "Plain " + i;
+            };
+            // Every seventh row has a price that doesn't parse, every eleventh is cut short
+            String price = i % 7 == 3 ? "12.5x" : "12.50";
+            if (i % 11 == 5) {
+                csv.append("Short ").append(i).append(',').append(description).append(',').append(sku).append("\r\n");
+                continue;
+            }
+            csv.append("Product ").append(i).append(',').append(description).append(',').append(sku)
+                    .append(",890100000").append(i).append(",Groceries,\"Acme, Ltd\",pcs,")
+                    .append(price).append(",15.00,1,100,2026-01-31,2025-01-01,B").append(i)
+                    .append(",1234").append(i % 10).append(',').append(i)
+                    .append(",acme@example.com,9876543210,\"12 Main St\r\nPune\"\r\n");
+            if (i % 9 == 4) {
+                // A blank line is a record too
+                csv.append("\r\n");
+                record++;
+            }
+        }
+        Path file = directory.resolve("products.csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<ProductCSVDTO> sequential = new ArrayList<>();
+        int sequentialCount;
+        try (InputStream in = Files.newInputStream(file)) {
+            sequentialCount = CSVHelper.forEachChunk(in, CHUNK_SIZE, sequential::addAll);
+        }
+        List<ProductCSVDTO> parallel = new ArrayList<>();
+        List<Integer> chunkSizes = new ArrayList<>();
+        int parallelCount = new ParallelCSVParser(pool, SEGMENT_SIZE).forEachChunk(file, CHUNK_SIZE, chunk -> {
+            chunkSizes.add(chunk.size());
+            parallel.addAll(chunk);
+        });
+
+        assertThat(parallelCount).isEqualTo(sequentialCount).isEqualTo(parallel.size());
+        assertThat(parallel).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(sequential);
+        assertThat(chunkSizes.subList(0, chunkSizes.size() - 1)).containsOnly(CHUNK_SIZE);
+
+        for (ProductCSVDTO dto : parallel) {
+            if (dto.getSku() != null) {
+                assertThat(dto.getRowNumber()).as("row of %s", dto.getSku()).isEqualTo(expectedRows.get(dto.getSku()));
+            }
+        }
+        ProductCSVDTO quoted = bySku(parallel, "SKU-2");
+        assertThat(quoted.getDescription()).isEqualTo("A 5\" screen, then a\nbare newline");
+        assertThat(bySku(parallel, "SKU-1").getDescription()).isEqualTo("Says \"fresh\" on the pack");
+        assertThat(bySku(parallel, "SKU-3").getParseError()).isNotNull();
+        assertThat(bySku(parallel, "SKU-5").getManufacturerCode()).isNull();
+        assertThat(parallel).anySatisfy(dto -> assertThat(dto.getSku()).isNull());
+    }
+
+    @Test
+    void headerOnlyFileHasNoRows() throws IOException {
+        Path file = directory.resolve("empty.csv");
+        Files.write(file, (String.join(",", CSVHelper.TEMPLATE_HEADER) + "\n").getBytes(StandardCharsets.UTF_8));
+
+        List<ProductCSVDTO> rows = new ArrayList<>();
+        int count = new ParallelCSVParser(pool, SEGMENT_SIZE).forEachChunk(file, CHUNK_SIZE, rows::addAll);
+
+        assertThat(count).isZero();
+        assertThat(rows).isEmpty();
+    }
+
+    private static ProductCSVDTO bySku(List<ProductCSVDTO> rows, String sku) {
+        return rows.stream().filter(dto -> sku.equals(dto.getSku())).findFirst().orElseThrow();
+    }
+}
@@ -18,7 +18,7 @@ interface CSVImport {
   totalRecords: number;
   validRecords: number;
   invalidRecords: number;
-  status: 'PENDING' | 'APPROVED' | 'REJECTED';
+  status: 'PENDING' | 'APPROVING' | 'APPROVED' | 'REJECTED';
   createdAt: string;
   errorDetails?: string;
 }
@@ -51,12 +51,13 @@ export function CSVImport({ role, username }: CSVImportProps) {
 
   const handleFileChange = (event: React.ChangeEvent<HTMLInputElement>) => {
     const selectedFile = event.target.files?.[0];
-    if (selectedFile && selectedFile.type === 'text/csv') {
+    const name = selectedFile?.name.toLowerCase() ?? '';
+    if (selectedFile && (selectedFile.type === 'text/csv' || name.endsWith('.csv') || name.endsWith('.csv.gz') || name.endsWith('.zip'))) {
       setFile(selectedFile);
     } else {
       toast({
         title: "Invalid file",
-        description: "Please select a valid CSV file",
+        description: "Please select a CSV file (.csv, .csv.gz or .zip)",
         variant: "destructive",
       });
     }
@@ -334,7 +335,7 @@ export function CSVImport({ role, username }: CSVImportProps) {
               <Input
                 ref={fileInputRef}
                 type="file"
-                accept=".csv"
+                accept=".csv,.gz,.zip"
                 onChange={handleFileChange}
                 className="cursor-pointer"
               />
@@ -416,6 +417,16 @@ export function CSVImport({ role, username }: CSVImportProps) {
                       >
                         View Details
                       </Button>
+                      {importItem.status === 'APPROVING' && (
+                        <Button
+                          size="sm"
+                          onClick={() => approveImport(importItem.id)}
+                          className="bg-green-600 hover:bg-green-700"
+                        >
+                          <Check className="w-4 h-4 mr-1" />
+                          Resume
+                        </Button>
+                      )}
                       {importItem.status === 'PENDING' && (
                         <>
                           <Button